@@ -1,5 +1,6 @@
 package com.example.cvfilter.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.slf4j.Logger;
@@ -34,15 +35,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             try {
                 String token = authHeader.substring(7);
 
-                // Validate token first
-                if (!jwtUtils.validateToken(token)) {
+                // Validate token first (une seule vérification de la signature par token)
+                Claims claims = jwtUtils.verify(token);
+                if (claims == null) {
                     logger.warn("Invalid JWT token provided");
                     response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
                     return; // Important: stop processing here
                 }
 
-                String email = jwtUtils.extractEmail(token);
-                String role = jwtUtils.extractRole(token);
+                String email = claims.getSubject();
+                String role = claims.get("role", String.class);
 
                 // Additional validation
                 if (email == null || email.trim().isEmpty()) {
@@ -57,6 +59,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     return;
                 }
 
+                request.setAttribute(JwtUtils.CLAIMS_ATTRIBUTE, claims);
+
                 // Set authentication if not already set
                 if (SecurityContextHolder.getContext().getAuthentication() == null) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
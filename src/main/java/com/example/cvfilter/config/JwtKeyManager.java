@@ -0,0 +1,159 @@
+package com.example.cvfilter.config;
+
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Clés de signature des JWT, partagées entre les instances via un fichier:
+//   active=<kid>          clé utilisée pour signer
+//   key.<kid>=<base64>    clés acceptées pour la vérification (au moins 256 bits)
+// Rotation: ajouter la nouvelle clé sur toutes les instances, puis changer "active",
+// puis retirer l'ancienne clé après la durée de vie des tokens.
+@Component
+public class JwtKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    private static final String ACTIVE_PROPERTY = "active";
+    private static final String KEY_PREFIX = "key.";
+    private static final int GENERATED_KEY_BYTES = 32;
+
+    @Value("${jwt.keys.file:jwt-keys.properties}")
+    private String keysFile;
+
+    private volatile KeySet keySet;
+    private volatile long lastModified = -1;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path path = Paths.get(keysFile);
+        if (!Files.exists(path)) {
+            // Première instance: une clé est générée et enregistrée pour survivre aux redémarrages
+            generateKeyFile(path);
+        }
+        reload();
+    }
+
+    public String getActiveKeyId() {
+        return keySet.activeKeyId;
+    }
+
+    public Key getActiveKey() {
+        return keySet.keys.get(keySet.activeKeyId);
+    }
+
+    // null si le kid est inconnu (clé retirée ou token d'une autre installation)
+    public Key getVerificationKey(String keyId) {
+        return keyId == null ? null : keySet.keys.get(keyId);
+    }
+
+    // Change à chaque rechargement effectif: permet d'invalider les vérifications en cache
+    public long getGeneration() {
+        return keySet.generation;
+    }
+
+    @Scheduled(fixedRateString = "${jwt.keys.reload-interval-ms:60000}", initialDelayString = "${jwt.keys.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            Path path = Paths.get(keysFile);
+            if (Files.exists(path) && Files.getLastModifiedTime(path).toMillis() != lastModified) {
+                reload();
+            }
+        } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+            // Fichier invalide: les clés déjà chargées restent en service
+            logger.error("Could not reload JWT keys from {}: {}", keysFile, e.getMessage());
+        }
+    }
+
+    private synchronized void reload() throws IOException {
+        Path path = Paths.get(keysFile);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(KEY_PREFIX)) {
+                continue;
+            }
+            String keyId = name.substring(KEY_PREFIX.length());
+            byte[] secret = Base64.getDecoder().decode(properties.getProperty(name).trim());
+            if (secret.length < GENERATED_KEY_BYTES) {
+                throw new IllegalStateException("JWT key " + keyId + " is shorter than 256 bits");
+            }
+            keys.put(keyId, Keys.hmacShaKeyFor(secret));
+        }
+
+        String activeKeyId = properties.getProperty(ACTIVE_PROPERTY, "").trim();
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Active JWT key '" + activeKeyId + "' is not defined in " + keysFile);
+        }
+
+        long generation = keySet == null ? 0 : keySet.generation + 1;
+        keySet = new KeySet(activeKeyId, Collections.unmodifiableMap(keys), generation);
+        lastModified = modified;
+        logger.info("Loaded {} JWT key(s) from {}, signing with '{}'", keys.size(), keysFile, activeKeyId);
+    }
+
+    private void generateKeyFile(Path path) throws IOException {
+        byte[] secret = new byte[GENERATED_KEY_BYTES];
+        new SecureRandom().nextBytes(secret);
+        String keyId = Long.toString(System.currentTimeMillis(), 36);
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "jwt-keys", ".tmp");
+        try {
+            try {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // Système de fichiers non POSIX
+            }
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# JWT signing keys shared by all instances (see JwtKeyManager)\n");
+                writer.write(ACTIVE_PROPERTY + "=" + keyId + "\n");
+                writer.write(KEY_PREFIX + keyId + "=" + Base64.getEncoder().encodeToString(secret) + "\n");
+            }
+            // Sans remplacement: si une autre instance a créé le fichier entre-temps, c'est le sien qui est gardé
+            Files.move(temp, path);
+            logger.warn("No JWT key file found, generated {} with key '{}'; copy it to every instance", path, keyId);
+        } catch (FileAlreadyExistsException e) {
+            // Créé en parallèle par une autre instance sur le même volume
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static final class KeySet {
+        private final String activeKeyId;
+        private final Map<String, Key> keys;
+        private final long generation;
+
+        private KeySet(String activeKeyId, Map<String, Key> keys, long generation) {
+            this.activeKeyId = activeKeyId;
+            this.keys = keys;
+            this.generation = generation;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.cvfilter.config;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Component
@@ -16,9 +21,44 @@ public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Claims vérifiés par JwtAuthFilter, disponibles pour le reste de la requête
+    public static final String CLAIMS_ATTRIBUTE = JwtUtils.class.getName() + ".claims";
+
     private final long EXPIRATION_MS = 86400000; // 24 hours
 
+    private final JwtKeyManager keyManager;
+
+    // Le parser est immuable et thread-safe: construit une seule fois, la clé est choisie d'après le kid du token
+    private final JwtParser parser;
+
+    // Tokens récemment vérifiés (empreinte SHA-256 -> claims): la signature n'est vérifiée qu'une fois par token
+    private final Map<String, Claims> verifiedTokens;
+    private long verifiedTokensGeneration;
+
+    public JwtUtils(JwtKeyManager keyManager,
+                    @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheMaxEntries) {
+        this.keyManager = keyManager;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyManager.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown JWT key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verifiedTokensGeneration = keyManager.getGeneration();
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > verifiedCacheMaxEntries;
+            }
+        };
+    }
+
     public String generateToken(String email, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
@@ -26,21 +66,18 @@ public class JwtUtils {
         claims.put("username", username);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyManager.getActiveKeyId())
                 .setClaims(claims)
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
-                .signWith(key)
+                .signWith(keyManager.getActiveKey())
                 .compact();
     }
 
     public Claims extractClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             logger.warn("JWT token is expired: {}", e.getMessage());
             throw e;
@@ -90,54 +127,88 @@ public class JwtUtils {
     }
 
     public boolean validateToken(String token) {
-        try {
-            if (token == null || token.trim().isEmpty()) {
-                logger.warn("JWT token is null or empty");
-                return false;
+        return verify(token) != null;
+    }
+
+    // Vérifie le token et retourne ses claims, ou null s'il est invalide
+    public Claims verify(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            logger.warn("JWT token is null or empty");
+            return null;
+        }
+
+        String digest = digest(token);
+        Claims cached;
+        synchronized (verifiedTokens) {
+            // Clés modifiées (rotation, retrait): les vérifications précédentes ne valent plus
+            if (verifiedTokensGeneration != keyManager.getGeneration()) {
+                verifiedTokens.clear();
+                verifiedTokensGeneration = keyManager.getGeneration();
             }
+            cached = verifiedTokens.get(digest);
+        }
+        if (cached != null) {
+            if (cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(digest);
+            }
+            logger.warn("JWT token is expired");
+            return null;
+        }
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
 
             if (claims.getSubject() == null || claims.getSubject().trim().isEmpty()) {
                 logger.warn("JWT token subject (email) is null or empty");
-                return false;
+                return null;
             }
 
             if (claims.get("role") == null) {
                 logger.warn("JWT token role is null");
-                return false;
+                return null;
             }
 
-            if (claims.getExpiration().before(new Date())) {
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
                 logger.warn("JWT token is expired");
-                return false;
+                return null;
             }
 
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(digest, claims);
+            }
             logger.debug("JWT token validation successful for user: {}", claims.getSubject());
-            return true;
+            return claims;
 
         } catch (ExpiredJwtException e) {
             logger.warn("JWT token is expired: {}", e.getMessage());
-            return false;
+            return null;
         } catch (UnsupportedJwtException e) {
             logger.warn("JWT token is unsupported: {}", e.getMessage());
-            return false;
+            return null;
         } catch (MalformedJwtException e) {
             logger.warn("JWT token is malformed: {}", e.getMessage());
-            return false;
+            return null;
         } catch (SecurityException e) {
             logger.warn("JWT signature validation failed: {}", e.getMessage());
-            return false;
+            return null;
         } catch (IllegalArgumentException e) {
             logger.warn("JWT token compact of handler are invalid: {}", e.getMessage());
-            return false;
+            return null;
         } catch (Exception e) {
             logger.error("Unexpected error during JWT validation: {}", e.getMessage());
-            return false;
+            return null;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
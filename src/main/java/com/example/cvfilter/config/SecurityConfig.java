@@ -17,9 +17,11 @@ public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final UploadAdmissionFilter uploadAdmissionFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, UploadAdmissionFilter uploadAdmissionFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.uploadAdmissionFilter = uploadAdmissionFilter;
     }
 
     @Bean
@@ -34,7 +36,7 @@ public class SecurityConfig {
                     auth
                             .requestMatchers("/api/auth/**").permitAll()
                             .requestMatchers("/error").permitAll()
-                            .requestMatchers("/api/job-offers/**", "/api/cv-ranking/**","/api/companies/**","/api/hr-managers/**").hasRole("ADMIN")
+                            .requestMatchers("/api/job-offers/**", "/api/cv-ranking/**","/api/companies/**","/api/hr-managers/**","/api/admin/**").hasRole("ADMIN")
                             .requestMatchers("/api/cv/**", "/api/job-offers/getAll", "/api/job-offers/getById").hasRole("USER")
                             .anyRequest().authenticated();
                 })
@@ -53,6 +55,8 @@ public class SecurityConfig {
                         })
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Après la vérification du token, avant la lecture du corps par le contrôleur
+                .addFilterAfter(uploadAdmissionFilter, JwtAuthFilter.class)
                 .build();
     }
 
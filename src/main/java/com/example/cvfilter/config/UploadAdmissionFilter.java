@@ -0,0 +1,74 @@
+package com.example.cvfilter.config;
+
+import com.example.cvfilter.exception.UploadRateLimitException;
+import com.example.cvfilter.service.UploadAdmissionControl;
+import com.example.cvfilter.service.UploadAdmissionControl.Permit;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Admission des uploads avant la lecture du corps et avant toute requête en base, sur les claims
+// déjà vérifiés par JwtAuthFilter. La place d'écriture est gardée jusqu'à la fin de la requête.
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadAdmissionFilter.class);
+
+    private static final String UPLOAD_PATH = "/api/cv/upload/";
+    private static final String COMPLETE_SUFFIX = "/complete";
+
+    private final UploadAdmissionControl uploadAdmissionControl;
+
+    public UploadAdmissionFilter(UploadAdmissionControl uploadAdmissionControl) {
+        this.uploadAdmissionControl = uploadAdmissionControl;
+    }
+
+    // Écritures seulement: uploads simples, groupés, ouverture et morceaux d'un upload reprenable, finalisation
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method)) || !uploadPath(request).startsWith(UPLOAD_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String username = request.getAttribute(JwtUtils.CLAIMS_ATTRIBUTE) instanceof Claims claims
+                ? claims.get("username", String.class) : null;
+        if (username == null) {
+            // Requête non authentifiée: refusée plus loin par les règles d'autorisation
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Permit permit;
+        try {
+            // La finalisation ne reçoit pas de données: ses morceaux ont déjà pris chacun un jeton
+            permit = uploadPath(request).endsWith(COMPLETE_SUFFIX)
+                    ? uploadAdmissionControl.acquireIo()
+                    : uploadAdmissionControl.admit(username);
+        } catch (UploadRateLimitException e) {
+            logger.debug("Upload rejected for user {}: {}", username, e.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.sendError(429, e.getMessage());
+            return;
+        }
+
+        try (permit) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static String uploadPath(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
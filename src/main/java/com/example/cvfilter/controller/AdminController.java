@@ -0,0 +1,24 @@
+package com.example.cvfilter.controller;
+
+import com.example.cvfilter.dao.cache.CacheStats;
+import com.example.cvfilter.dao.cache.DaoCacheRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final DaoCacheRegistry daoCacheRegistry;
+
+    public AdminController(DaoCacheRegistry daoCacheRegistry) {
+        this.daoCacheRegistry = daoCacheRegistry;
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(daoCacheRegistry.stats());
+    }
+}
@@ -9,6 +9,8 @@ import com.example.cvfilter.service.impl.AuthServiceInterface;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -42,9 +44,10 @@ public class AuthController {
         return ResponseEntity.ok(registeredUser);
     }*/
 
+    // Traitement asynchrone: le thread de la requête est libéré pendant la vérification BCrypt
     @PostMapping("/login")
-    public ResponseEntity<JwtResponse> login(@RequestBody LoginRequest loginRequest) {
-        JwtResponse jwtResponse = authService.login(loginRequest.getEmail(), loginRequest.getPassword());
-        return ResponseEntity.ok(jwtResponse);
+    public CompletableFuture<ResponseEntity<JwtResponse>> login(@RequestBody LoginRequest loginRequest) {
+        return authService.loginAsync(loginRequest.getEmail(), loginRequest.getPassword())
+                .thenApply(ResponseEntity::ok);
     }
 }
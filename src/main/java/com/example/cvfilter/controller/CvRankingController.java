@@ -5,6 +5,7 @@ import com.example.cvfilter.service.CvRankingService;
 import com.example.cvfilter.service.EmailService;
 import com.example.cvfilter.service.impl.CvRankingServiceInterface;
 import com.example.cvfilter.service.impl.EmailServiceInterface;
+import com.example.cvfilter.service.impl.IngestionPriorityServiceInterface;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,10 +17,13 @@ public class CvRankingController {
 
     private final CvRankingServiceInterface cvRankingService;
     private final EmailServiceInterface emailService;
+    private final IngestionPriorityServiceInterface ingestionPriorityService;
 
-    public CvRankingController(CvRankingServiceInterface cvRankingService, EmailServiceInterface emailService) {
+    public CvRankingController(CvRankingServiceInterface cvRankingService, EmailServiceInterface emailService,
+                               IngestionPriorityServiceInterface ingestionPriorityService) {
         this.cvRankingService = cvRankingService;
         this.emailService = emailService;
+        this.ingestionPriorityService = ingestionPriorityService;
     }
 
     @GetMapping("/job/{jobOfferId}/best")
@@ -57,13 +61,15 @@ public class CvRankingController {
     @GetMapping("/job/{jobOfferId}/top/{topN}")
     public ResponseEntity<List<CvRanking>> getTopCvsForJob(
             @PathVariable Long jobOfferId,
-            @PathVariable int topN) {
+            @PathVariable int topN,
+            @RequestParam(required = false) List<String> skills) {
 
         if (topN <= 0 || topN > 20) {
             return ResponseEntity.badRequest().build();
         }
 
-        List<CvRanking> rankings = cvRankingService.getTopCvsForJob(jobOfferId, topN);
+        List<CvRanking> rankings = cvRankingService.getTopCvsForJob(jobOfferId, topN,
+                skills != null ? skills : List.of());
 
         if (rankings.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -99,6 +105,13 @@ public class CvRankingController {
         return ResponseEntity.ok("Les " + rankings.size() + " meilleurs candidats ont été notifiés par email.");
     }
 
+    @PostMapping("/job/{jobOfferId}/ingestion/boost")
+    public ResponseEntity<String> boostIngestion(@PathVariable Long jobOfferId) {
+        ingestionPriorityService.boost(jobOfferId);
+
+        return ResponseEntity.accepted().body("Les CVs de l'offre " + jobOfferId + " seront extraits en priorité.");
+    }
+
     @GetMapping("/job/{jobOfferId}/details")
     public ResponseEntity<CvRankingDetails> getRankingDetails(@PathVariable Long jobOfferId) {
         List<CvRanking> rankings = cvRankingService.getBestCvsForJob(jobOfferId);
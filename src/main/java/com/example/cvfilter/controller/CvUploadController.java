@@ -1,11 +1,17 @@
 package com.example.cvfilter.controller;
 
 import com.example.cvfilter.config.JwtUtils;
+import com.example.cvfilter.dto.BulkCvUploadResponse;
+import com.example.cvfilter.dto.ChunkedUploadInitRequest;
+import com.example.cvfilter.dto.ChunkedUploadStatusResponse;
+import com.example.cvfilter.dto.CvExtractionStatusResponse;
+import com.example.cvfilter.dto.CvUploadResponse;
 import com.example.cvfilter.service.impl.CvUploadServiceInterface;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 
@@ -13,6 +19,9 @@ import java.io.IOException;
 @RequestMapping("/api/cv")
 public class CvUploadController {
 
+    private static final String TRACKING_ID_HEADER = "X-CV-Tracking-Id";
+    private static final String EXTRACTION_STATUS_HEADER = "X-CV-Extraction-Status";
+
     private final CvUploadServiceInterface cvUploadService;
     private final JwtUtils jwtUtils;
 
@@ -21,10 +30,104 @@ public class CvUploadController {
         this.jwtUtils = jwtUtils;
     }
 
-    @PostMapping("/upload/{jobId}")
+    // Formulaire multipart avec une partie "file": le corps est lu au fil de l'eau par le service.
+    // La réponse garde son format texte d'origine; le suivi de l'extraction est donné dans les en-têtes.
+    @PostMapping(value = "/upload/{jobId}", consumes = "multipart/form-data")
     public ResponseEntity<String> uploadCv(@PathVariable Long jobId,
-                                           @RequestParam("file") MultipartFile file,
                                            HttpServletRequest request) throws IOException {
+        String username = extractUsername(request);
+
+        CvUploadResponse response = cvUploadService.uploadCv(jobId, request.getInputStream(), request.getContentType(),
+                request.getContentLengthLong(), username);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(EXTRACTION_STATUS_HEADER, response.getStatus().name());
+        // CV déjà extrait par un scan: pas d'identifiant de suivi
+        if (response.getTrackingId() != null) {
+            builder.header(TRACKING_ID_HEADER, response.getTrackingId())
+                    .header(HttpHeaders.LOCATION, "/api/cv/status/" + response.getTrackingId());
+        }
+        return builder.body("CV uploaded to: " + response.getPath());
+    }
+
+    // Upload du fichier en corps brut (application/pdf, application/octet-stream...): le nom est passé en paramètre
+    @PostMapping(value = "/upload/{jobId}/stream", consumes = "*/*")
+    public ResponseEntity<CvUploadResponse> uploadCvStream(@PathVariable Long jobId,
+                                                           @RequestParam(value = "filename", required = false) String filename,
+                                                           HttpServletRequest request) throws IOException {
+        String username = extractUsername(request);
+
+        CvUploadResponse response = cvUploadService.uploadCvStream(jobId, request.getInputStream(),
+                request.getContentLengthLong(), filename, username);
+        return ResponseEntity.ok(response);
+    }
+
+    // Archive ZIP de CVs en corps brut: un seul contrôle du token, de l'utilisateur et de l'offre pour tout le lot
+    @PostMapping(value = "/upload/{jobId}/bulk", consumes = "*/*")
+    public ResponseEntity<BulkCvUploadResponse> uploadCvZip(@PathVariable Long jobId,
+                                                            HttpServletRequest request) throws IOException {
+        String username = extractUsername(request);
+
+        BulkCvUploadResponse response = cvUploadService.uploadCvZip(jobId, request.getInputStream(),
+                request.getContentLengthLong(), username);
+        return ResponseEntity.ok(response);
+    }
+
+    // Upload reprenable: ouverture, envoi des morceaux à leur position, puis finalisation avec vérification du SHA-256
+    @PostMapping("/upload/{jobId}/chunked")
+    public ResponseEntity<ChunkedUploadStatusResponse> initChunkedUpload(@PathVariable Long jobId,
+                                                                         @RequestBody ChunkedUploadInitRequest initRequest,
+                                                                         HttpServletRequest request) {
+        String username = extractUsername(request);
+        return ResponseEntity.ok(cvUploadService.initChunkedUpload(jobId, initRequest, username));
+    }
+
+    @PutMapping(value = "/upload/chunked/{uploadId}", consumes = "*/*")
+    public ResponseEntity<ChunkedUploadStatusResponse> uploadChunk(@PathVariable String uploadId,
+                                                                   @RequestParam("offset") long offset,
+                                                                   HttpServletRequest request) throws IOException {
+        String username = extractUsername(request);
+        return ResponseEntity.ok(cvUploadService.uploadChunk(uploadId, offset, request.getInputStream(),
+                request.getContentLengthLong(), username));
+    }
+
+    @GetMapping("/upload/chunked/{uploadId}")
+    public ResponseEntity<ChunkedUploadStatusResponse> getChunkedUploadStatus(@PathVariable String uploadId,
+                                                                              HttpServletRequest request) {
+        String username = extractUsername(request);
+        return ResponseEntity.ok(cvUploadService.getChunkedUploadStatus(uploadId, username));
+    }
+
+    @PostMapping("/upload/chunked/{uploadId}/complete")
+    public ResponseEntity<CvUploadResponse> completeChunkedUpload(@PathVariable String uploadId,
+                                                                  HttpServletRequest request) {
+        String username = extractUsername(request);
+        return ResponseEntity.ok(cvUploadService.completeChunkedUpload(uploadId, username));
+    }
+
+    @DeleteMapping("/upload/chunked/{uploadId}")
+    public ResponseEntity<Void> cancelChunkedUpload(@PathVariable String uploadId, HttpServletRequest request) {
+        String username = extractUsername(request);
+        cvUploadService.cancelChunkedUpload(uploadId, username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/status/{trackingId}")
+    public ResponseEntity<CvExtractionStatusResponse> getExtractionStatus(@PathVariable String trackingId,
+                                                                          HttpServletRequest request) {
+        String username = extractUsername(request);
+        return ResponseEntity.ok(cvUploadService.getExtractionStatus(trackingId, username));
+    }
+
+    private String extractUsername(HttpServletRequest request) {
+        // Token déjà vérifié par JwtAuthFilter
+        if (request.getAttribute(JwtUtils.CLAIMS_ATTRIBUTE) instanceof Claims claims) {
+            String username = claims.get("username", String.class);
+            if (username == null) {
+                throw new IllegalArgumentException("Unable to extract username from token");
+            }
+            return username;
+        }
+
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -37,8 +140,6 @@ public class CvUploadController {
         if (username == null) {
             throw new IllegalArgumentException("Unable to extract username from token");
         }
-
-        String path = cvUploadService.uploadCv(jobId, file, username);
-        return ResponseEntity.ok("CV uploaded to: " + path);
+        return username;
     }
 }
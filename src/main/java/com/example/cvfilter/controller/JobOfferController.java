@@ -1,6 +1,8 @@
 package com.example.cvfilter.controller;
 
 import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
+import com.example.cvfilter.dto.JobOfferPageResponse;
 import com.example.cvfilter.exception.JobOfferNotFoundException;
 import com.example.cvfilter.service.impl.JobOfferServiceInterface;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +34,17 @@ public class JobOfferController {
         return ResponseEntity.ok(service.getAll());
     }
 
+    // Liste paginée (résumés sans les descriptions), du plus récent au plus ancien
+    @GetMapping("/page")
+    public ResponseEntity<JobOfferPageResponse> getPage(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String location,
+                                                        @RequestParam(required = false) String department,
+                                                        @RequestParam(required = false) EmploymentType employmentType,
+                                                        @RequestParam(required = false) Boolean active) {
+        return ResponseEntity.ok(service.getPage(cursor, limit, location, department, employmentType, active));
+    }
+
     @GetMapping("/getById/{id}")
     public ResponseEntity<JobOffer> getById(@PathVariable Long id) {
         return service.getById(id)
@@ -0,0 +1,18 @@
+package com.example.cvfilter.dao;
+
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CvManifestDao {
+    CvManifestEntry save(CvManifestEntry entry);
+    List<CvManifestEntry> saveAll(List<CvManifestEntry> entries);
+    List<CvManifestEntry> findByJobOfferId(Long jobOfferId);
+    Optional<CvManifestEntry> findByPath(String path, Long userId, Long jobOfferId);
+    Optional<CvManifestEntry> findByTrackingId(String trackingId);
+    List<CvManifestEntry> findByContentHash(String contentHash, Long userId, Long jobOfferId);
+    List<CvManifestEntry> findByStatusIn(Collection<CvExtractionStatus> statuses);
+}
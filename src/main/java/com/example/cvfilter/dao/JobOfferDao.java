@@ -1,7 +1,10 @@
 package com.example.cvfilter.dao;
 
 import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
+import com.example.cvfilter.dto.JobOfferSummary;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +18,14 @@ public interface JobOfferDao {
 
     Optional<JobOffer> findById(Long id);
 
+    // Instance propre à l'appelant, lue en base après invalidation du cache: à utiliser avant toute modification
+    Optional<JobOffer> loadForUpdate(Long id);
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
+
+    // Page suivant la clé (afterPostingDate, afterId); afterId null pour la première page
+    List<JobOfferSummary> findSummaries(String location, String department, EmploymentType employmentType, Boolean active,
+                                        LocalDate afterPostingDate, Long afterId, int limit);
 }
@@ -10,4 +10,6 @@ public interface UserDao {
     Optional<User> findById(Long id);
     boolean existsById(Long id);
     Optional<User> findByEmail(String email);
+    // Instance propre à l'appelant, lue en base après invalidation du cache: à utiliser avant toute modification
+    Optional<User> loadForUpdate(Long id);
 }
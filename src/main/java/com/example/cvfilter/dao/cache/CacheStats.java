@@ -0,0 +1,67 @@
+package com.example.cvfilter.dao.cache;
+
+public class CacheStats {
+    private final boolean enabled;
+    private final int size;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long hits;
+    private final long misses;
+    private final long expirations;
+    private final long evictions;
+    private final long invalidations;
+
+    public CacheStats(boolean enabled, int size, int maxEntries, long ttlMs, long hits, long misses,
+                      long expirations, long evictions, long invalidations) {
+        this.enabled = enabled;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.hits = hits;
+        this.misses = misses;
+        this.expirations = expirations;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cvfilter.dao.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Crée les caches des DAOs avec la configuration commune et les recense pour les statistiques
+@Component
+public class DaoCacheRegistry {
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<String, TtlCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public DaoCacheRegistry(@Value("${dao.cache.enabled:true}") boolean enabled,
+                            @Value("${dao.cache.ttl-ms:60000}") long ttlMs,
+                            @Value("${dao.cache.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public <K, V> TtlCache<K, V> create(String name) {
+        TtlCache<K, V> cache = new TtlCache<>(enabled, ttlMs, maxEntries);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cvfilter.dao.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Cache en lecture (read-through) borné en nombre d'entrées (LRU), chaque entrée expire après ttl.
+// Le chargement se fait hors verrou; une invalidation pendant un chargement empêche de stocker une valeur périmée.
+public class TtlCache<K, V> {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries;
+    private long invalidationGeneration;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TtlCache(boolean enabled, long ttlMs, int maxEntries) {
+        this.enabled = enabled && ttlMs > 0 && maxEntries > 0;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        if (!enabled || key == null) {
+            return loader.apply(key);
+        }
+
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            generation = invalidationGeneration;
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        synchronized (this) {
+            if (value != null && generation == invalidationGeneration) {
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationGeneration++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationGeneration++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(enabled, entries.size(), maxEntries, TimeUnit.NANOSECONDS.toMillis(ttlNanos),
+                hits.sum(), misses.sum(), expirations.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
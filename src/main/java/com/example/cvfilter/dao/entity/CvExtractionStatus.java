@@ -0,0 +1,11 @@
+package com.example.cvfilter.dao.entity;
+
+public enum CvExtractionStatus {
+    QUEUED,
+    EXTRACTING,
+    INDEXED,
+    EMPTY,
+    DUPLICATE,
+    FAILED,
+    QUARANTINED
+}
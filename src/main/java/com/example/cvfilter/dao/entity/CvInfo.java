@@ -1,6 +1,8 @@
 package com.example.cvfilter.dao.entity;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CvInfo {
     private Long userId;
@@ -14,6 +16,10 @@ public class CvInfo {
     private String experience;
     private String education;
     private LocalDateTime extractedAt;
+    private String contentHash;
+    private List<String> skillIds = new ArrayList<>();
+    private String linkedinUrl;
+    private String githubUrl;
 
     public CvInfo(Long userId, Long jobOfferId, String cvPath) {
         this.userId = userId;
@@ -110,4 +116,36 @@ public class CvInfo {
     public void setExtractedAt(LocalDateTime extractedAt) {
         this.extractedAt = extractedAt;
     }
-}
\ No newline at end of file
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public List<String> getSkillIds() {
+        return skillIds;
+    }
+
+    public void setSkillIds(List<String> skillIds) {
+        this.skillIds = skillIds;
+    }
+
+    public String getLinkedinUrl() {
+        return linkedinUrl;
+    }
+
+    public void setLinkedinUrl(String linkedinUrl) {
+        this.linkedinUrl = linkedinUrl;
+    }
+
+    public String getGithubUrl() {
+        return githubUrl;
+    }
+
+    public void setGithubUrl(String githubUrl) {
+        this.githubUrl = githubUrl;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.cvfilter.dao.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cv_manifest",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"path", "user_id", "job_offer_id"}),
+        indexes = {
+                @Index(name = "idx_cv_manifest_job_offer", columnList = "job_offer_id"),
+                @Index(name = "idx_cv_manifest_content_hash", columnList = "content_hash")
+        })
+public class CvManifestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1024)
+    private String path;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "job_offer_id", nullable = false)
+    private Long jobOfferId;
+
+    private Long fileSize;
+    private Long lastModified;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(unique = true, length = 36)
+    private String trackingId;
+
+    @Enumerated(EnumType.STRING)
+    private CvExtractionStatus status;
+
+    private int failureCount;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime updatedAt;
+
+    public CvManifestEntry() {}
+
+    public CvManifestEntry(String path, Long userId, Long jobOfferId) {
+        this.path = path;
+        this.userId = userId;
+        this.jobOfferId = jobOfferId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getJobOfferId() { return jobOfferId; }
+    public void setJobOfferId(Long jobOfferId) { this.jobOfferId = jobOfferId; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public Long getLastModified() { return lastModified; }
+    public void setLastModified(Long lastModified) { this.lastModified = lastModified; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getTrackingId() { return trackingId; }
+    public void setTrackingId(String trackingId) { this.trackingId = trackingId; }
+
+    public CvExtractionStatus getStatus() { return status; }
+    public void setStatus(CvExtractionStatus status) { this.status = status; }
+
+    public int getFailureCount() { return failureCount; }
+    public void setFailureCount(int failureCount) { this.failureCount = failureCount; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isTerminal() {
+        return status == CvExtractionStatus.INDEXED || status == CvExtractionStatus.EMPTY
+                || status == CvExtractionStatus.DUPLICATE;
+    }
+}
@@ -4,6 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        // Pagination par clé (posting_date, id), du plus récent au plus ancien, avec ou sans filtre
+        @Index(name = "idx_job_offer_posting_date_id", columnList = "posting_date DESC, id DESC"),
+        @Index(name = "idx_job_offer_active_posting_date_id", columnList = "is_active, posting_date DESC, id DESC"),
+        @Index(name = "idx_job_offer_employment_type_posting_date_id", columnList = "employment_type, posting_date DESC, id DESC"),
+        @Index(name = "idx_job_offer_location", columnList = "location"),
+        @Index(name = "idx_job_offer_department", columnList = "department")
+})
 public class JobOffer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,60 @@
+package com.example.cvfilter.dao.impl;
+
+import com.example.cvfilter.dao.CvManifestDao;
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+import com.example.cvfilter.dao.repository.CvManifestRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class CvManifestDaoImpl implements CvManifestDao {
+
+    private final CvManifestRepository cvManifestRepository;
+
+    public CvManifestDaoImpl(CvManifestRepository cvManifestRepository) {
+        this.cvManifestRepository = cvManifestRepository;
+    }
+
+    @Override
+    public CvManifestEntry save(CvManifestEntry entry) {
+        entry.setUpdatedAt(LocalDateTime.now());
+        return cvManifestRepository.save(entry);
+    }
+
+    @Override
+    public List<CvManifestEntry> saveAll(List<CvManifestEntry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        entries.forEach(entry -> entry.setUpdatedAt(now));
+        return cvManifestRepository.saveAll(entries);
+    }
+
+    @Override
+    public List<CvManifestEntry> findByJobOfferId(Long jobOfferId) {
+        return cvManifestRepository.findByJobOfferId(jobOfferId);
+    }
+
+    @Override
+    public Optional<CvManifestEntry> findByPath(String path, Long userId, Long jobOfferId) {
+        return cvManifestRepository.findByPathAndUserIdAndJobOfferId(path, userId, jobOfferId);
+    }
+
+    @Override
+    public Optional<CvManifestEntry> findByTrackingId(String trackingId) {
+        return cvManifestRepository.findByTrackingId(trackingId);
+    }
+
+    @Override
+    public List<CvManifestEntry> findByContentHash(String contentHash, Long userId, Long jobOfferId) {
+        return cvManifestRepository.findByContentHashAndUserIdAndJobOfferId(contentHash, userId, jobOfferId);
+    }
+
+    @Override
+    public List<CvManifestEntry> findByStatusIn(Collection<CvExtractionStatus> statuses) {
+        return cvManifestRepository.findByStatusIn(statuses);
+    }
+}
@@ -12,14 +12,21 @@ import java.util.Optional;
 public class HRManagerDaoImpl implements HRManagerDao {
 
     private final HRManagerRepository hrManagerRepository;
+    private final UserDaoImpl userDao;
 
-    public HRManagerDaoImpl(HRManagerRepository hrManagerRepository) {
+    public HRManagerDaoImpl(HRManagerRepository hrManagerRepository, UserDaoImpl userDao) {
         this.hrManagerRepository = hrManagerRepository;
+        this.userDao = userDao;
     }
 
+    // Un responsable RH est aussi un utilisateur: les caches de UserDaoImpl sont invalidés
     @Override
     public HRManager save(HRManager hrManager) {
-        return hrManagerRepository.save(hrManager);
+        try {
+            return hrManagerRepository.save(hrManager);
+        } finally {
+            userDao.evictAll();
+        }
     }
 
     @Override
@@ -34,7 +41,11 @@ public class HRManagerDaoImpl implements HRManagerDao {
 
     @Override
     public void deleteById(Long id) {
-        hrManagerRepository.deleteById(id);
+        try {
+            hrManagerRepository.deleteById(id);
+        } finally {
+            userDao.evictAll();
+        }
     }
 
     @Override
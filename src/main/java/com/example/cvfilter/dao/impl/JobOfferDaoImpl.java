@@ -1,10 +1,24 @@
 package com.example.cvfilter.dao.impl;
 
 import com.example.cvfilter.dao.JobOfferDao;
+import com.example.cvfilter.dao.cache.DaoCacheRegistry;
+import com.example.cvfilter.dao.cache.TtlCache;
 import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
 import com.example.cvfilter.dao.repository.JobOfferRepository;
+import com.example.cvfilter.dto.JobOfferSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,13 +27,28 @@ public class JobOfferDaoImpl implements JobOfferDao {
 
     private final JobOfferRepository jobOfferRepository;
 
-    public JobOfferDaoImpl(JobOfferRepository jobOfferRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Offre lue à chaque upload (existence) et à chaque classement.
+    // Les instances en cache sont partagées entre les requêtes: elles ne doivent jamais être modifiées (voir loadForUpdate).
+    private final TtlCache<Long, Optional<JobOffer>> jobOffersById;
+
+    public JobOfferDaoImpl(JobOfferRepository jobOfferRepository, DaoCacheRegistry cacheRegistry) {
         this.jobOfferRepository = jobOfferRepository;
+        this.jobOffersById = cacheRegistry.create("jobOffers.byId");
     }
 
+    // Création, mise à jour et désactivation passent toutes par save
     @Override
     public JobOffer save(JobOffer offer) {
-        return jobOfferRepository.save(offer);
+        try {
+            return jobOfferRepository.save(offer);
+        } finally {
+            if (offer.getId() != null) {
+                jobOffersById.invalidate(offer.getId());
+            }
+        }
     }
 
     @Override
@@ -34,16 +63,69 @@ public class JobOfferDaoImpl implements JobOfferDao {
 
     @Override
     public Optional<JobOffer> findById(Long id) {
+        return jobOffersById.get(id, jobOfferRepository::findById);
+    }
+
+    @Override
+    public Optional<JobOffer> loadForUpdate(Long id) {
+        jobOffersById.invalidate(id);
         return jobOfferRepository.findById(id);
     }
 
     @Override
     public void deleteById(Long id) {
-        jobOfferRepository.deleteById(id);
+        try {
+            jobOfferRepository.deleteById(id);
+        } finally {
+            jobOffersById.invalidate(id);
+        }
     }
 
     @Override
     public boolean existsById(Long id) {
-        return jobOfferRepository.existsById(id);
+        return findById(id).isPresent();
+    }
+
+    // Tri posting_date DESC (dates nulles en premier, comme l'index PostgreSQL), puis id DESC.
+    // Seules les colonnes du résumé sont lues: les descriptions ne quittent pas la base.
+    @Override
+    public List<JobOfferSummary> findSummaries(String location, String department, EmploymentType employmentType, Boolean active,
+                                               LocalDate afterPostingDate, Long afterId, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(org.hibernate.Session.class).getCriteriaBuilder();
+        CriteriaQuery<JobOfferSummary> query = cb.createQuery(JobOfferSummary.class);
+        Root<JobOffer> offer = query.from(JobOffer.class);
+        Path<LocalDate> postingDate = offer.get("postingDate");
+        Path<Long> id = offer.get("id");
+
+        query.select(cb.construct(JobOfferSummary.class, id, offer.get("title"), offer.get("location"),
+                offer.get("department"), offer.get("employmentType"), postingDate, offer.get("closingDate"),
+                offer.get("minSalary"), offer.get("maxSalary"), offer.get("salaryCurrency"), offer.get("isActive")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (location != null) {
+            predicates.add(cb.equal(offer.get("location"), location));
+        }
+        if (department != null) {
+            predicates.add(cb.equal(offer.get("department"), department));
+        }
+        if (employmentType != null) {
+            predicates.add(cb.equal(offer.get("employmentType"), employmentType));
+        }
+        if (active != null) {
+            predicates.add(cb.equal(offer.get("isActive"), active));
+        }
+        if (afterId != null) {
+            predicates.add(afterPostingDate == null
+                    ? cb.or(cb.and(cb.isNull(postingDate), cb.lessThan(id, afterId)), cb.isNotNull(postingDate))
+                    : cb.or(cb.lessThan(postingDate, afterPostingDate),
+                            cb.and(cb.equal(postingDate, afterPostingDate), cb.lessThan(id, afterId))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(postingDate, true), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
     }
 }
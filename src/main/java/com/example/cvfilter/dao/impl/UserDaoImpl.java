@@ -1,6 +1,8 @@
 package com.example.cvfilter.dao.impl;
 
 import com.example.cvfilter.dao.UserDao;
+import com.example.cvfilter.dao.cache.DaoCacheRegistry;
+import com.example.cvfilter.dao.cache.TtlCache;
 import com.example.cvfilter.dao.entity.User;
 import com.example.cvfilter.dao.repository.UserRepository;
 import org.springframework.stereotype.Repository;
@@ -12,23 +14,46 @@ public class UserDaoImpl implements UserDao {
 
     private final UserRepository userRepository;
 
-    public UserDaoImpl(UserRepository userRepository) {
+    // Recherches faites à chaque upload et à chaque connexion (y compris les résultats vides).
+    // Les instances en cache sont partagées entre les requêtes: elles ne doivent jamais être modifiées (voir loadForUpdate).
+    private final TtlCache<String, Optional<User>> usersByUsername;
+    private final TtlCache<String, Optional<User>> usersByEmail;
+
+    public UserDaoImpl(UserRepository userRepository, DaoCacheRegistry cacheRegistry) {
         this.userRepository = userRepository;
+        this.usersByUsername = cacheRegistry.create("users.byUsername");
+        this.usersByEmail = cacheRegistry.create("users.byEmail");
     }
 
     @Override
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return usersByUsername.get(username, userRepository::findByUsername);
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return usersByEmail.get(email, userRepository::findByEmail);
     }
 
+    // Le nom ou l'email ont pu changer: les anciennes clés ne sont pas connues, tout est invalidé
     @Override
     public User save(User user) {
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } finally {
+            evictAll();
+        }
+    }
+
+    @Override
+    public Optional<User> loadForUpdate(Long id) {
+        evictAll();
+        return userRepository.findById(id);
+    }
+
+    public void evictAll() {
+        usersByUsername.invalidateAll();
+        usersByEmail.invalidateAll();
     }
 
     @Override
@@ -0,0 +1,17 @@
+package com.example.cvfilter.dao.repository;
+
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CvManifestRepository extends JpaRepository<CvManifestEntry, Long> {
+    List<CvManifestEntry> findByJobOfferId(Long jobOfferId);
+    Optional<CvManifestEntry> findByPathAndUserIdAndJobOfferId(String path, Long userId, Long jobOfferId);
+    Optional<CvManifestEntry> findByTrackingId(String trackingId);
+    List<CvManifestEntry> findByContentHashAndUserIdAndJobOfferId(String contentHash, Long userId, Long jobOfferId);
+    List<CvManifestEntry> findByStatusIn(Collection<CvExtractionStatus> statuses);
+}
@@ -0,0 +1,101 @@
+package com.example.cvfilter.dto;
+
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+
+import java.util.List;
+
+public class BulkCvUploadResponse {
+    private int accepted;
+    private int rejected;
+    private List<FileResult> files;
+
+    public BulkCvUploadResponse(List<FileResult> files) {
+        this.files = files;
+        this.accepted = (int) files.stream().filter(file -> file.getError() == null).count();
+        this.rejected = files.size() - accepted;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<FileResult> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileResult> files) {
+        this.files = files;
+    }
+
+    public static class FileResult {
+        private String fileName;
+        private String path;
+        private String trackingId;
+        private CvExtractionStatus status;
+        private String error;
+
+        public FileResult(String fileName, String path, String trackingId, CvExtractionStatus status, String error) {
+            this.fileName = fileName;
+            this.path = path;
+            this.trackingId = trackingId;
+            this.status = status;
+            this.error = error;
+        }
+
+        public static FileResult rejected(String fileName, String error) {
+            return new FileResult(fileName, null, null, null, error);
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public void setFileName(String fileName) {
+            this.fileName = fileName;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public String getTrackingId() {
+            return trackingId;
+        }
+
+        public void setTrackingId(String trackingId) {
+            this.trackingId = trackingId;
+        }
+
+        public CvExtractionStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(CvExtractionStatus status) {
+            this.status = status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
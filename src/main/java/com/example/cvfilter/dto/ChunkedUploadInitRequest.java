@@ -0,0 +1,44 @@
+package com.example.cvfilter.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public class ChunkedUploadInitRequest {
+    @NotBlank
+    private String filename;
+
+    @NotNull
+    @Positive
+    private Long size;
+
+    // SHA-256 du fichier complet, vérifié à la fin de l'upload
+    @NotBlank
+    @Pattern(regexp = "[0-9a-fA-F]{64}")
+    private String sha256;
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.cvfilter.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ChunkedUploadStatusResponse {
+    private String uploadId;
+    private Long jobOfferId;
+    private long size;
+    private long receivedBytes;
+    private long maxChunkBytes;
+    // Plages déjà reçues [début, fin[, fusionnées: le client ne renvoie que ce qui manque
+    private List<long[]> receivedRanges;
+    private LocalDateTime expiresAt;
+
+    public ChunkedUploadStatusResponse(String uploadId, Long jobOfferId, long size, long receivedBytes,
+                                       long maxChunkBytes, List<long[]> receivedRanges, LocalDateTime expiresAt) {
+        this.uploadId = uploadId;
+        this.jobOfferId = jobOfferId;
+        this.size = size;
+        this.receivedBytes = receivedBytes;
+        this.maxChunkBytes = maxChunkBytes;
+        this.receivedRanges = receivedRanges;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public Long getJobOfferId() {
+        return jobOfferId;
+    }
+
+    public void setJobOfferId(Long jobOfferId) {
+        this.jobOfferId = jobOfferId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    public void setReceivedBytes(long receivedBytes) {
+        this.receivedBytes = receivedBytes;
+    }
+
+    public long getMaxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    public void setMaxChunkBytes(long maxChunkBytes) {
+        this.maxChunkBytes = maxChunkBytes;
+    }
+
+    public List<long[]> getReceivedRanges() {
+        return receivedRanges;
+    }
+
+    public void setReceivedRanges(List<long[]> receivedRanges) {
+        this.receivedRanges = receivedRanges;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
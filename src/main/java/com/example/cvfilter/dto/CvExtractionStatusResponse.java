@@ -0,0 +1,62 @@
+package com.example.cvfilter.dto;
+
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+
+import java.time.LocalDateTime;
+
+public class CvExtractionStatusResponse {
+    private String trackingId;
+    private Long jobOfferId;
+    private CvExtractionStatus status;
+    private String error;
+    private LocalDateTime updatedAt;
+
+    public CvExtractionStatusResponse(String trackingId, Long jobOfferId, CvExtractionStatus status,
+                                      String error, LocalDateTime updatedAt) {
+        this.trackingId = trackingId;
+        this.jobOfferId = jobOfferId;
+        this.status = status;
+        this.error = error;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public Long getJobOfferId() {
+        return jobOfferId;
+    }
+
+    public void setJobOfferId(Long jobOfferId) {
+        this.jobOfferId = jobOfferId;
+    }
+
+    public CvExtractionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CvExtractionStatus status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
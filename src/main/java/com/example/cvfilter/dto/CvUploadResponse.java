@@ -0,0 +1,39 @@
+package com.example.cvfilter.dto;
+
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+
+public class CvUploadResponse {
+    private String path;
+    private String trackingId;
+    private CvExtractionStatus status;
+
+    public CvUploadResponse(String path, String trackingId, CvExtractionStatus status) {
+        this.path = path;
+        this.trackingId = trackingId;
+        this.status = status;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public CvExtractionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CvExtractionStatus status) {
+        this.status = status;
+    }
+}
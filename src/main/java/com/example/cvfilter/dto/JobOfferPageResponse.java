@@ -0,0 +1,30 @@
+package com.example.cvfilter.dto;
+
+import java.util.List;
+
+public class JobOfferPageResponse {
+    private List<JobOfferSummary> items;
+    // À repasser en paramètre "cursor" pour la page suivante; null sur la dernière page
+    private String nextCursor;
+
+    public JobOfferPageResponse(List<JobOfferSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<JobOfferSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<JobOfferSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.cvfilter.dto;
+
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
+
+import java.time.LocalDate;
+
+// Offre sans ses textes longs (description, description détaillée): construite directement par la requête
+public class JobOfferSummary {
+    private Long id;
+    private String title;
+    private String location;
+    private String department;
+    private EmploymentType employmentType;
+    private LocalDate postingDate;
+    private LocalDate closingDate;
+    private Double minSalary;
+    private Double maxSalary;
+    private String salaryCurrency;
+    private Boolean isActive;
+
+    public JobOfferSummary(Long id, String title, String location, String department, EmploymentType employmentType,
+                           LocalDate postingDate, LocalDate closingDate, Double minSalary, Double maxSalary,
+                           String salaryCurrency, Boolean isActive) {
+        this.id = id;
+        this.title = title;
+        this.location = location;
+        this.department = department;
+        this.employmentType = employmentType;
+        this.postingDate = postingDate;
+        this.closingDate = closingDate;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.salaryCurrency = salaryCurrency;
+        this.isActive = isActive;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public EmploymentType getEmploymentType() {
+        return employmentType;
+    }
+
+    public void setEmploymentType(EmploymentType employmentType) {
+        this.employmentType = employmentType;
+    }
+
+    public LocalDate getPostingDate() {
+        return postingDate;
+    }
+
+    public void setPostingDate(LocalDate postingDate) {
+        this.postingDate = postingDate;
+    }
+
+    public LocalDate getClosingDate() {
+        return closingDate;
+    }
+
+    public void setClosingDate(LocalDate closingDate) {
+        this.closingDate = closingDate;
+    }
+
+    public Double getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(Double minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public Double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(Double maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    public String getSalaryCurrency() {
+        return salaryCurrency;
+    }
+
+    public void setSalaryCurrency(String salaryCurrency) {
+        this.salaryCurrency = salaryCurrency;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cvfilter.exception;
+
+public class AuthenticationBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AuthenticationBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
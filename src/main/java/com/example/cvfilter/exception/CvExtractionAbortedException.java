@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class CvExtractionAbortedException extends RuntimeException {
+    public CvExtractionAbortedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class CvExtractionQueueFullException extends RuntimeException {
+    public CvExtractionQueueFullException(String message) {
+        super(message);
+    }
+}
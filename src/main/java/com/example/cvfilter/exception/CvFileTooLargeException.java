@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class CvFileTooLargeException extends RuntimeException {
+    public CvFileTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class CvTrackingNotFoundException extends RuntimeException {
+    public CvTrackingNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.cvfilter.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -42,6 +43,50 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
     }
 
+    @ExceptionHandler(CvFileTooLargeException.class)
+    public ResponseEntity<Object> handleCvFileTooLarge(CvFileTooLargeException ex) {
+        return buildResponse(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage());
+    }
+
+    @ExceptionHandler(UnsupportedCvFileTypeException.class)
+    public ResponseEntity<Object> handleUnsupportedCvFileType(UnsupportedCvFileTypeException ex) {
+        return buildResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+    }
+
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<Object> handleUploadSessionNotFound(UploadSessionNotFoundException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidUploadChunkException.class)
+    public ResponseEntity<Object> handleInvalidUploadChunk(InvalidUploadChunkException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidMultipartRequestException.class)
+    public ResponseEntity<Object> handleInvalidMultipartRequest(InvalidMultipartRequestException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(UploadRateLimitException.class)
+    public ResponseEntity<Object> handleUploadRateLimit(UploadRateLimitException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(AuthenticationBusyException.class)
+    public ResponseEntity<Object> handleAuthenticationBusy(AuthenticationBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(CvTrackingNotFoundException.class)
+    public ResponseEntity<Object> handleCvTrackingNotFound(CvTrackingNotFoundException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
     @ExceptionHandler(CompanyNotFoundException.class)
     public ResponseEntity<Object> handleCompanyNotFound(CompanyNotFoundException ex) {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class InvalidMultipartRequestException extends RuntimeException {
+    public InvalidMultipartRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class InvalidUploadChunkException extends RuntimeException {
+    public InvalidUploadChunkException(String message) {
+        super(message);
+    }
+}
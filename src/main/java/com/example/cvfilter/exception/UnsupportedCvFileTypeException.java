@@ -0,0 +1,7 @@
+package com.example.cvfilter.exception;
+
+public class UnsupportedCvFileTypeException extends RuntimeException {
+    public UnsupportedCvFileTypeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cvfilter.exception;
+
+public class UploadRateLimitException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public UploadRateLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -6,21 +6,23 @@ import com.example.cvfilter.dto.JwtResponse;
 import com.example.cvfilter.config.JwtUtils;
 import com.example.cvfilter.exception.InvalidCredentialsException;
 import com.example.cvfilter.service.impl.AuthServiceInterface;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AuthService implements AuthServiceInterface {
 
     private final UserDao userDao;
     private final JwtUtils jwtUtils;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
 
-    public AuthService(UserDao userDao, JwtUtils jwtUtils) {
+    public AuthService(UserDao userDao, JwtUtils jwtUtils, PasswordHashingService passwordHashingService) {
         this.userDao = userDao;
         this.jwtUtils = jwtUtils;
+        this.passwordHashingService = passwordHashingService;
     }
 
     /*@Override
@@ -31,7 +33,7 @@ public class AuthService implements AuthServiceInterface {
 
     @Override
     public JwtResponse register(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
         User savedUser = userDao.save(user);
 
         String token = jwtUtils.generateToken(
@@ -46,6 +48,19 @@ public class AuthService implements AuthServiceInterface {
 
     @Override
     public JwtResponse login(String email, String password) {
+        try {
+            return loginAsync(email, password).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // La vérification BCrypt (et le re-hachage si le coût a changé) s'exécute sur le pool dédié
+    @Override
+    public CompletableFuture<JwtResponse> loginAsync(String email, String password) {
         if (email == null || password == null) {
             throw new InvalidCredentialsException("Email and password are required");
         }
@@ -53,17 +68,37 @@ public class AuthService implements AuthServiceInterface {
         User user = userDao.findByEmail(email)
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new InvalidCredentialsException("Invalid email or password");
-        }
-
-        String token = jwtUtils.generateToken(
-                user.getEmail(),
-                user.getUsername(),
-                user.getRole().name()
-        );
+        return passwordHashingService.submit(() -> {
+            if (!passwordHashingService.matches(password, user.getPassword())) {
+                throw new InvalidCredentialsException("Invalid email or password");
+            }
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                rehash(user, password);
+            }
+
+            String token = jwtUtils.generateToken(
+                    user.getEmail(),
+                    user.getUsername(),
+                    user.getRole().name()
+            );
+
+            return new JwtResponse(token);
+        });
+    }
 
-        return new JwtResponse(token);
+    // Le mot de passe en clair n'est disponible qu'à la connexion: c'est le moment de migrer le hash.
+    // L'utilisateur de findByEmail est partagé par le cache: le hash est modifié sur une instance relue.
+    private void rehash(User user, String password) {
+        try {
+            String hash = passwordHashingService.encode(password);
+            userDao.loadForUpdate(user.getId()).ifPresent(current -> {
+                current.setPassword(hash);
+                userDao.save(current);
+            });
+        } catch (RuntimeException e) {
+            // La connexion reste valide: le hash sera migré à la prochaine connexion
+            System.err.println("Could not rehash password for user " + user.getId() + ": " + e.getMessage());
+        }
     }
 
 
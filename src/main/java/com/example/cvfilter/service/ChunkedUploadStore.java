@@ -0,0 +1,335 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.exception.InvalidUploadChunkException;
+import com.example.cvfilter.exception.UploadSessionNotFoundException;
+import com.example.cvfilter.util.ContentHashUtil;
+import com.example.cvfilter.util.StreamingUploadWriter;
+import com.example.cvfilter.util.StreamingUploadWriter.CvFileType;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Uploads en plusieurs morceaux: chaque morceau est écrit à sa position dans le fichier partiel,
+// les plages reçues sont conservées sur disque pour reprendre après une coupure (ou un redémarrage)
+@Component
+public class ChunkedUploadStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${cv.upload.chunked.dir:cv_chunked_uploads}")
+    private String uploadDir;
+
+    @Value("${cv.upload.chunked.max-chunk-bytes:8388608}")
+    private long maxChunkBytes;
+
+    @Value("${cv.upload.chunked.expiry-ms:86400000}")
+    private long expiryMs;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path directory = Paths.get(uploadDir);
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path metadata : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".properties"))::iterator) {
+                try {
+                    Session session = Session.load(metadata);
+                    sessions.put(session.uploadId, session);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Ignoring corrupted chunked upload " + metadata + ": " + e.getMessage());
+                }
+            }
+        }
+        System.out.println("Chunked upload store at " + uploadDir + " (" + sessions.size() + " uploads in progress)");
+    }
+
+    public long getMaxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    public Session create(String username, Long userId, Long jobOfferId, String filename, long size, String sha256) throws IOException {
+        Session session = new Session(UUID.randomUUID().toString(), username, userId, jobOfferId, filename, size, sha256.toLowerCase());
+        // Fichier (creux) de la taille finale dès le départ: les morceaux peuvent arriver dans n'importe quel ordre
+        Path partPath = Files.createFile(partPath(session.uploadId));
+        try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+            file.setLength(size);
+        }
+        session.save(metadataPath(session.uploadId));
+        sessions.put(session.uploadId, session);
+        return session;
+    }
+
+    // Un upload n'est visible que par l'utilisateur qui l'a créé
+    public Session get(String uploadId, String username) {
+        Session session = sessions.get(uploadId);
+        if (session == null || !session.username.equals(username)) {
+            throw new UploadSessionNotFoundException("No chunked upload found with ID: " + uploadId);
+        }
+        return session;
+    }
+
+    public Session writeChunk(String uploadId, String username, long offset, InputStream body, long contentLength) throws IOException {
+        Session session = get(uploadId, username);
+        if (offset < 0 || offset >= session.size) {
+            throw new InvalidUploadChunkException("Chunk offset " + offset + " is outside the file (size " + session.size + ")");
+        }
+        long allowed = Math.min(maxChunkBytes, session.size - offset);
+        if (contentLength > allowed) {
+            throw new InvalidUploadChunkException("Chunk of " + contentLength + " bytes at offset " + offset + " exceeds the allowed " + allowed + " bytes");
+        }
+
+        long written = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        ReadableByteChannel source = Channels.newChannel(body);
+        try (FileChannel channel = FileChannel.open(partPath(uploadId), StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > allowed) {
+                    throw new InvalidUploadChunkException("Chunk at offset " + offset + " exceeds the allowed " + allowed + " bytes");
+                }
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            throw new UploadSessionNotFoundException("No chunked upload found with ID: " + uploadId);
+        } finally {
+            // Même interrompu, ce qui a été écrit reste acquis
+            if (written > 0) {
+                synchronized (session) {
+                    session.addRange(offset, offset + written);
+                    session.save(metadataPath(uploadId));
+                }
+            }
+        }
+
+        // Premier morceau: le type est vérifié tout de suite plutôt qu'après l'envoi complet
+        if (offset == 0 && written > 0) {
+            try {
+                StreamingUploadWriter.sniff(partPath(uploadId));
+            } catch (RuntimeException e) {
+                delete(uploadId);
+                throw e;
+            }
+        }
+        return session;
+    }
+
+    // Vérifie que tout est reçu et que le SHA-256 correspond; le fichier partiel reste en place jusqu'à delete
+    public CompletedUpload complete(String uploadId, String username) throws IOException {
+        Session session = get(uploadId, username);
+        synchronized (session) {
+            if (session.receivedBytes() != session.size) {
+                throw new InvalidUploadChunkException("Upload " + uploadId + " is incomplete: " + session.receivedBytes() + "/" + session.size + " bytes received");
+            }
+        }
+
+        Path part = partPath(uploadId);
+        String contentHash = ContentHashUtil.sha256(part);
+        if (!contentHash.equals(session.sha256)) {
+            // Morceaux corrompus: on repart de zéro plutôt que de garder des plages fausses
+            synchronized (session) {
+                session.ranges.clear();
+                session.save(metadataPath(uploadId));
+            }
+            throw new InvalidUploadChunkException("Checksum mismatch for upload " + uploadId + ": expected " + session.sha256 + ", got " + contentHash);
+        }
+
+        return new CompletedUpload(session, part, contentHash, StreamingUploadWriter.sniff(part));
+    }
+
+    public void delete(String uploadId) throws IOException {
+        sessions.remove(uploadId);
+        Files.deleteIfExists(partPath(uploadId));
+        Files.deleteIfExists(metadataPath(uploadId));
+    }
+
+    // Supprime les uploads abandonnés (aucun morceau reçu depuis expiry-ms) et les fichiers orphelins
+    @Scheduled(fixedRateString = "${cv.upload.chunked.gc-interval-ms:3600000}")
+    public void collectExpiredUploads() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        for (Session session : new ArrayList<>(sessions.values())) {
+            if (now - session.lastActivity > expiryMs) {
+                try {
+                    delete(session.uploadId);
+                    removed++;
+                } catch (IOException e) {
+                    System.err.println("Could not delete expired chunked upload " + session.uploadId + ": " + e.getMessage());
+                }
+            }
+        }
+
+        try (Stream<Path> files = Files.list(Paths.get(uploadDir))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                String uploadId = name.substring(0, name.indexOf('.') > 0 ? name.indexOf('.') : name.length());
+                if (!sessions.containsKey(uploadId) && now - Files.getLastModifiedTime(file).toMillis() > expiryMs) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error while collecting chunked uploads: " + e.getMessage());
+        }
+
+        if (removed > 0) {
+            System.out.println("Removed " + removed + " expired chunked uploads");
+        }
+    }
+
+    public LocalDateTime expiresAt(Session session) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(session.lastActivity + expiryMs), ZoneId.systemDefault());
+    }
+
+    private Path partPath(String uploadId) {
+        return Paths.get(uploadDir, uploadId + ".part");
+    }
+
+    private Path metadataPath(String uploadId) {
+        return Paths.get(uploadDir, uploadId + ".properties");
+    }
+
+    public static final class Session {
+        private final String uploadId;
+        private final String username;
+        private final Long userId;
+        private final Long jobOfferId;
+        private final String filename;
+        private final long size;
+        private final String sha256;
+        // Plages reçues, fusionnées: début -> fin (exclue)
+        private final TreeMap<Long, Long> ranges = new TreeMap<>();
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private Session(String uploadId, String username, Long userId, Long jobOfferId, String filename, long size, String sha256) {
+            this.uploadId = uploadId;
+            this.username = username;
+            this.userId = userId;
+            this.jobOfferId = jobOfferId;
+            this.filename = filename;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        public String getUploadId() { return uploadId; }
+        public Long getUserId() { return userId; }
+        public Long getJobOfferId() { return jobOfferId; }
+        public String getFilename() { return filename; }
+        public long getSize() { return size; }
+
+        public synchronized long receivedBytes() {
+            long received = 0;
+            for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+                received += range.getValue() - range.getKey();
+            }
+            return received;
+        }
+
+        public synchronized List<long[]> receivedRanges() {
+            List<long[]> result = new ArrayList<>();
+            ranges.forEach((start, end) -> result.add(new long[]{start, end}));
+            return result;
+        }
+
+        private synchronized void addRange(long start, long end) {
+            Map.Entry<Long, Long> previous = ranges.floorEntry(start);
+            if (previous != null && previous.getValue() >= start) {
+                start = previous.getKey();
+                end = Math.max(end, previous.getValue());
+            }
+            Map.Entry<Long, Long> next = ranges.ceilingEntry(start);
+            while (next != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                ranges.remove(next.getKey());
+                next = ranges.ceilingEntry(start);
+            }
+            ranges.put(start, end);
+            lastActivity = System.currentTimeMillis();
+        }
+
+        private synchronized void save(Path path) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("uploadId", uploadId);
+            properties.setProperty("username", username);
+            properties.setProperty("userId", String.valueOf(userId));
+            properties.setProperty("jobOfferId", String.valueOf(jobOfferId));
+            properties.setProperty("filename", filename);
+            properties.setProperty("size", String.valueOf(size));
+            properties.setProperty("sha256", sha256);
+            properties.setProperty("lastActivity", String.valueOf(lastActivity));
+            StringBuilder encoded = new StringBuilder();
+            ranges.forEach((start, end) -> encoded.append(encoded.length() > 0 ? "," : "").append(start).append('-').append(end));
+            properties.setProperty("ranges", encoded.toString());
+
+            Path temp = Files.createTempFile(path.getParent(), uploadId, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private static Session load(Path path) throws IOException {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+
+            Session session = new Session(properties.getProperty("uploadId"), properties.getProperty("username"),
+                    Long.parseLong(properties.getProperty("userId")), Long.parseLong(properties.getProperty("jobOfferId")),
+                    properties.getProperty("filename"), Long.parseLong(properties.getProperty("size")),
+                    properties.getProperty("sha256"));
+            String ranges = properties.getProperty("ranges", "");
+            if (!ranges.isEmpty()) {
+                for (String range : ranges.split(",")) {
+                    String[] bounds = range.split("-");
+                    session.ranges.put(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+                }
+            }
+            session.lastActivity = Long.parseLong(properties.getProperty("lastActivity"));
+            return session;
+        }
+    }
+
+    public static final class CompletedUpload {
+        private final Session session;
+        private final Path path;
+        private final String contentHash;
+        private final CvFileType type;
+
+        private CompletedUpload(Session session, Path path, String contentHash, CvFileType type) {
+            this.session = session;
+            this.path = path;
+            this.contentHash = contentHash;
+            this.type = type;
+        }
+
+        public Session getSession() { return session; }
+        public Path getPath() { return path; }
+        public String getContentHash() { return contentHash; }
+        public CvFileType getType() { return type; }
+    }
+}
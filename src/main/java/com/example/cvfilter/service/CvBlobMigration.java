@@ -0,0 +1,175 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.dao.CvManifestDao;
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+import com.example.cvfilter.util.ContentHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Migration de l'ancien stockage data/{jobId}/<nom>_user_<id>_<ts>.<ext> vers le stockage par contenu.
+// Le manifeste est mis à jour vers le chemin du blob; le CSV garde les chemins d'origine (historique).
+@Component
+public class CvBlobMigration implements ApplicationRunner {
+
+    @Value("${cv.storage.path:data}")
+    private String storagePath;
+
+    @Value("${cv.blob-store.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${cv.blob-store.migration.keep-originals:false}")
+    private boolean keepOriginals;
+
+    private final CvBlobStore cvBlobStore;
+    private final CvProcessingService cvProcessingService;
+    private final CvManifestDao cvManifestDao;
+    private final CvInfoCache cvInfoCache;
+
+    public CvBlobMigration(CvBlobStore cvBlobStore, CvProcessingService cvProcessingService,
+                           CvManifestDao cvManifestDao, CvInfoCache cvInfoCache) {
+        this.cvBlobStore = cvBlobStore;
+        this.cvProcessingService = cvProcessingService;
+        this.cvManifestDao = cvManifestDao;
+        this.cvInfoCache = cvInfoCache;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        if (!cvBlobStore.isEnabled()) {
+            System.err.println("CV blob store disabled, skipping migration of " + storagePath);
+            return;
+        }
+        migrate();
+    }
+
+    // Exécutée sous le verrou du scan de réconciliation: aucun fichier n'est déplacé pendant son extraction
+    public int migrate() {
+        File[] jobDirs = new File(storagePath).listFiles(File::isDirectory);
+        if (jobDirs == null) {
+            System.out.println("No job directories to migrate in: " + storagePath);
+            return 0;
+        }
+
+        int migrated = 0;
+        synchronized (cvProcessingService) {
+            for (File jobDir : jobDirs) {
+                Long jobOfferId = cvProcessingService.extractJobIdFromDirectoryName(jobDir.getName());
+                File[] cvFiles = jobDir.listFiles(cvProcessingService::isCvFile);
+                if (jobOfferId == null || cvFiles == null) {
+                    continue;
+                }
+                migrated += migrateJobDirectory(jobOfferId, cvFiles);
+            }
+        }
+
+        System.out.println("Migrated " + migrated + " CV files from " + storagePath + " to the blob store");
+        return migrated;
+    }
+
+    private int migrateJobDirectory(Long jobOfferId, File[] cvFiles) {
+        Map<String, CvManifestEntry> manifest = new HashMap<>();
+        for (CvManifestEntry entry : cvManifestDao.findByJobOfferId(jobOfferId)) {
+            manifest.put(entry.getPath() + "#" + entry.getUserId(), entry);
+        }
+
+        int migrated = 0;
+        List<CvManifestEntry> updatedEntries = new ArrayList<>();
+        List<Path> toDelete = new ArrayList<>();
+        Map<CvManifestEntry, Path> toEnqueue = new LinkedHashMap<>();
+
+        for (File cvFile : cvFiles) {
+            Long userId = cvProcessingService.extractUserIdFromFilename(cvFile.getName());
+            if (userId == null || cvFile.length() == 0) {
+                System.out.println("  Skipping file without user ID: " + cvFile.getName());
+                continue;
+            }
+
+            String oldPath = cvFile.getAbsolutePath();
+            String contentHash;
+            Path blobPath;
+            try {
+                contentHash = ContentHashUtil.sha256(cvFile.toPath());
+                blobPath = cvBlobStore.copyIn(cvFile.toPath(), contentHash, extensionOf(cvFile.getName()));
+            } catch (IOException e) {
+                System.err.println("  ✗ Could not migrate CV file: " + cvFile.getName() + " - " + e.getMessage());
+                continue;
+            }
+            String newPath = blobPath.toString();
+
+            CvManifestEntry entry = manifest.get(oldPath + "#" + userId);
+            if (manifest.containsKey(newPath + "#" + userId)) {
+                // Même contenu déjà rattaché à cette candidature: l'ancienne entrée reste sur son chemin d'origine
+            } else if (entry != null) {
+                entry.setPath(newPath);
+                entry.setContentHash(contentHash);
+                manifest.put(newPath + "#" + userId, entry);
+                updatedEntries.add(entry);
+                if (entry.getStatus() == CvExtractionStatus.QUEUED || entry.getStatus() == CvExtractionStatus.EXTRACTING) {
+                    // Extraction interrompue: remise en file depuis le blob
+                    toEnqueue.put(entry, cvFile.toPath());
+                    continue;
+                }
+            } else if (cvInfoCache.getKnownCvPaths().contains(oldPath)) {
+                // CV du CSV sans entrée de manifeste
+                CvManifestEntry indexed = new CvManifestEntry(newPath, userId, jobOfferId);
+                indexed.setFileSize(cvFile.length());
+                indexed.setLastModified(cvFile.lastModified());
+                indexed.setContentHash(contentHash);
+                indexed.setStatus(CvExtractionStatus.INDEXED);
+                manifest.put(newPath + "#" + userId, indexed);
+                updatedEntries.add(indexed);
+            } else {
+                // Jamais extrait: mis en file depuis le blob
+                CvManifestEntry queued = new CvManifestEntry(newPath, userId, jobOfferId);
+                queued.setContentHash(contentHash);
+                manifest.put(newPath + "#" + userId, queued);
+                toEnqueue.put(queued, cvFile.toPath());
+                continue;
+            }
+            toDelete.add(cvFile.toPath());
+            migrated++;
+        }
+
+        if (!updatedEntries.isEmpty()) {
+            cvManifestDao.saveAll(updatedEntries);
+        }
+        for (Map.Entry<CvManifestEntry, Path> pending : toEnqueue.entrySet()) {
+            CvManifestEntry entry = pending.getKey();
+            try {
+                cvProcessingService.enqueue(new File(entry.getPath()), entry.getUserId(), jobOfferId, entry.getContentHash());
+                toDelete.add(pending.getValue());
+                migrated++;
+            } catch (RuntimeException e) {
+                // L'original est conservé: il sera repris par le prochain scan
+                System.err.println("  ✗ Could not queue migrated CV file: " + pending.getValue() + " - " + e.getMessage());
+            }
+        }
+
+        if (!keepOriginals) {
+            for (Path original : toDelete) {
+                try {
+                    Files.deleteIfExists(original);
+                } catch (IOException e) {
+                    System.err.println("  Could not delete migrated CV file: " + original + " - " + e.getMessage());
+                }
+            }
+        }
+        return migrated;
+    }
+
+    private static String extensionOf(String filename) {
+        return filename.substring(filename.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.cvfilter.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Stockage des CVs adressé par le SHA-256 du contenu: <dir>/ab/cd/abcd...<ext>.
+// Un même fichier envoyé à plusieurs offres n'est stocké qu'une fois; le manifeste relie
+// chaque candidature (utilisateur, offre) à son blob.
+@Component
+public class CvBlobStore {
+
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})\\.[a-z]+");
+    private static final String STAGING_DIR = "staging";
+
+    @Value("${cv.blob-store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cv.blob-store.dir:cv_blobs}")
+    private String blobDir;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(blobDir).toAbsolutePath();
+        if (!enabled) {
+            System.out.println("CV blob store disabled, uploads are stored per job offer directory");
+            return;
+        }
+        Files.createDirectories(root.resolve(STAGING_DIR));
+        System.out.println("CV blob store at " + root);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Dossier d'écriture des uploads avant leur rangement (même volume: le rangement est un simple renommage)
+    public Path stagingDirectory() {
+        return root.resolve(STAGING_DIR);
+    }
+
+    public String newStagingName() {
+        return UUID.randomUUID().toString();
+    }
+
+    public Path pathFor(String contentHash, String extension) {
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash + extension);
+    }
+
+    // Range un fichier dont le hash est connu; si le contenu est déjà stocké, le fichier source est supprimé
+    public Path moveIn(Path source, String contentHash, String extension) throws IOException {
+        Path target = pathFor(contentHash, extension);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(source);
+            return target;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Même contenu rangé en parallèle par un autre upload
+            Files.deleteIfExists(source);
+        } catch (AtomicMoveNotSupportedException e) {
+            copyIn(source, target);
+            Files.deleteIfExists(source);
+        }
+        return target;
+    }
+
+    // Copie un fichier existant (migration): l'original n'est pas touché
+    public Path copyIn(Path source, String contentHash, String extension) throws IOException {
+        Path target = pathFor(contentHash, extension);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            copyIn(source, target);
+        }
+        return target;
+    }
+
+    public boolean contains(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(root);
+    }
+
+    // Hash d'un blob, lu dans son nom: pas besoin de relire le fichier
+    public Optional<String> contentHashOf(Path path) {
+        if (!contains(path)) {
+            return Optional.empty();
+        }
+        Matcher matcher = BLOB_NAME.matcher(path.getFileName().toString());
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private void copyIn(Path source, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(source, temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Rangé en parallèle
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -1,11 +1,31 @@
 package com.example.cvfilter.service;
 
 import com.example.cvfilter.dao.entity.CvInfo;
+import com.example.cvfilter.exception.CvExtractionAbortedException;
 import com.example.cvfilter.service.impl.CvExtractionServiceInterface;
+import com.example.cvfilter.util.ContactScanner;
+import com.example.cvfilter.util.ContactScanner.Contacts;
+import com.example.cvfilter.util.ContentHashUtil;
+import com.example.cvfilter.util.CvSectionSegmenter;
+import com.example.cvfilter.util.CvSectionSegmenter.SectionMap;
+import com.example.cvfilter.util.CvSectionSegmenter.SectionType;
+import com.example.cvfilter.util.DocxTextExtractor;
+import com.example.cvfilter.util.ExtractionBudget;
+import com.example.cvfilter.util.MappedRandomAccessRead;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -15,46 +35,129 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
 public class CvExtractionService implements CvExtractionServiceInterface {
 
-    private static final String[] COMMON_SKILLS = {
-            "java", "python", "javascript", "html", "css", "sql", "spring", "react",
-            "angular", "node", "docker", "kubernetes", "git", "jenkins", "maven",
-            "gradle", "mongodb", "mysql", "postgresql", "oracle", "linux", "windows",
-            "aws", "azure", "gcp", "microservices", "rest", "api", "json", "xml",
-            "junit", "selenium", "agile", "scrum", "kanban"
+    private static final int FIELDS_VERSION = 2;
+
+    // Compilés une seule fois
+    private static final Pattern NAME_LINE_PATTERN = Pattern.compile("[A-Za-zÀ-ÿ\\s'.-]+");
+    private static final Pattern[] NAME_PATTERNS = {
+            Pattern.compile("(?:nom|name|prénom|prenom)\\s*:?\\s*([A-Za-zÀ-ÿ\\s'.-]+)", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("^([A-Za-zÀ-ÿ]+\\s+[A-Za-zÀ-ÿ]+)", Pattern.MULTILINE)
     };
 
+    private final SkillDictionary skillDictionary;
+    private final ExtractionResultCache extractionResultCache;
+    private final CvTextStore cvTextStore;
+
+    @Value("${cv.extraction.timeout-ms:30000}")
+    private long extractionTimeoutMs;
+
+    @Value("${cv.extraction.max-allocated-bytes:536870912}")
+    private long maxAllocatedBytes;
+
+    @Value("${cv.extraction.pdf.max-main-memory-bytes:16777216}")
+    private long pdfMaxMainMemoryBytes;
+
+    @Value("${cv.extraction.pdf.memory-mapped:true}")
+    private boolean pdfMemoryMapped;
+
+    @Value("${cv.extraction.docx.streaming:true}")
+    private boolean docxStreaming;
+
+    @Value("${cv.extraction.docx.max-part-bytes:67108864}")
+    private long docxMaxPartBytes;
+
+    @Value("${cv.extraction.docx.max-chars:1000000}")
+    private int docxMaxChars;
+
+    @Value("${cv.extraction.parallelism:0}")
+    private int parallelism;
+
+    // PDFTextStripper n'est pas thread-safe: pris dans le pool le temps d'un document puis vidé avant d'être rendu.
+    // Un ThreadLocal ne servirait à rien avec des threads virtuels (un thread par tâche).
+    private BlockingQueue<BudgetedPdfTextStripper> pdfStrippers;
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cv-extraction-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CvExtractionService(SkillDictionary skillDictionary, ExtractionResultCache extractionResultCache,
+                               CvTextStore cvTextStore) {
+        this.skillDictionary = skillDictionary;
+        this.extractionResultCache = extractionResultCache;
+        this.cvTextStore = cvTextStore;
+    }
+
+    @PostConstruct
+    public void init() {
+        pdfStrippers = new ArrayBlockingQueue<>(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
 
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        BudgetedPdfTextStripper pdfStripper;
+        while (pdfStrippers != null && (pdfStripper = pdfStrippers.poll()) != null) {
+            try {
+                pdfStripper.close();
+            } catch (IOException e) {
+                System.err.println("Could not close PDF text stripper: " + e.getMessage());
+            }
+        }
+    }
 
     public CvInfo extractCvInfo(File cvFile, Long userId, Long jobOfferId) throws IOException {
+        String contentHash = extractionResultCache.isEnabled() || cvTextStore.isEnabled()
+                ? ContentHashUtil.sha256(cvFile.toPath()) : null;
+        return extractCvInfo(cvFile, userId, jobOfferId, contentHash);
+    }
+
+    public CvInfo extractCvInfo(File cvFile, Long userId, Long jobOfferId, String contentHash) throws IOException {
         CvInfo cvInfo = new CvInfo(userId, jobOfferId, cvFile.getAbsolutePath());
 
         System.out.println("Processing CV file: " + cvFile.getName() + " for Job ID: " + jobOfferId);
 
-        String content = extractTextFromFile(cvFile);
+        Optional<ExtractionResultCache.CachedExtraction> cached = extractionResultCache.get(contentHash);
+        if (cached.isPresent()) {
+            if (fieldsVersion().equals(cached.get().getVersion())) {
+                cached.get().applyTo(cvInfo);
+                System.out.println("Reused cached extraction for: " + cvFile.getName());
+            } else if (cached.get().getText() != null) {
+                // Texte toujours valide, mais les règles d'extraction des champs ont changé
+                extractFields(cvInfo, cached.get().getText());
+                extractionResultCache.put(contentHash, cached.get().getText(), cvInfo, fieldsVersion());
+                System.out.println("Re-extracted fields from cached text for: " + cvFile.getName());
+            }
+            if (cached.get().getText() != null) {
+                cvTextStore.put(contentHash, cached.get().getText());
+                return cvInfo;
+            }
+        }
+
+        String content = extractTextWithinBudget(cvFile);
 
         if (content != null && !content.trim().isEmpty()) {
             System.out.println("Extracted content length: " + content.length());
             System.out.println("First 500 characters: " + content.substring(0, Math.min(500, content.length())));
 
             String cleanedContent = cleanAndNormalizeText(content);
-
-            // Set description (first 500 characters of cleaned content)
-            cvInfo.setDescription(cleanedContent.length() > 500 ?
-                    cleanedContent.substring(0, 500) + "..." : cleanedContent);
-
-            // Extract information avec contenu nettoyé
-            cvInfo.setName(extractName(cleanedContent));
-            cvInfo.setEmail(extractEmail(cleanedContent));
-            cvInfo.setPhone(extractPhone(cleanedContent));
-            cvInfo.setSkills(extractSkills(cleanedContent));
-            cvInfo.setExperience(extractExperience(cleanedContent));
-            cvInfo.setEducation(extractEducation(cleanedContent));
+            extractFields(cvInfo, cleanedContent);
+            extractionResultCache.put(contentHash, cleanedContent, cvInfo, fieldsVersion());
+            cvTextStore.put(contentHash, cleanedContent);
 
             System.out.println("Extracted - Name: " + cvInfo.getName());
             System.out.println("Extracted - Email: " + cvInfo.getEmail());
@@ -73,12 +176,66 @@ public class CvExtractionService implements CvExtractionServiceInterface {
 
         return cvInfo;
     }
+
+    private void extractFields(CvInfo cvInfo, String cleanedContent) {
+        // Set description (first 500 characters of cleaned content)
+        cvInfo.setDescription(cleanedContent.length() > 500 ?
+                cleanedContent.substring(0, 500) + "..." : cleanedContent);
+
+        // Extract information avec contenu nettoyé
+        cvInfo.setName(extractName(cleanedContent));
+        // Coordonnées en un seul passage linéaire (pas de regex à retour arrière)
+        Contacts contacts = ContactScanner.scan(cleanedContent);
+        cvInfo.setEmail(contacts.getEmail());
+        cvInfo.setPhone(contacts.getPhone());
+        cvInfo.setLinkedinUrl(contacts.getLinkedinUrl());
+        cvInfo.setGithubUrl(contacts.getGithubUrl());
+        // Un seul passage sur le texte pour les trois sections
+        SectionMap sections = CvSectionSegmenter.segment(cleanedContent);
+        cvInfo.setSkillIds(skillDictionary.findSkillIds(cleanedContent));
+        cvInfo.setSkills(extractSkills(cleanedContent, sections, cvInfo.getSkillIds()));
+        cvInfo.setExperience(extractExperience(cleanedContent, sections));
+        cvInfo.setEducation(extractEducation(cleanedContent, sections));
+    }
+
+    // Version des règles d'extraction des champs: à incrémenter quand elles changent
+    private String fieldsVersion() {
+        return FIELDS_VERSION + ":" + skillDictionary.getFingerprint();
+    }
+
     public CvInfo extractCvInfo(File cvFile, Long userId) throws IOException {
 
         return extractCvInfo(cvFile, userId, null);
     }
 
 
+    // Un document pathologique ne doit pas bloquer un worker: il est abandonné au-delà de son budget
+    private String extractTextWithinBudget(File file) throws IOException {
+        try (ExtractionBudget budget = ExtractionBudget.begin(extractionTimeoutMs, maxAllocatedBytes)) {
+            ScheduledFuture<?> timeout = extractionTimeoutMs > 0
+                    ? watchdog.schedule(budget::interruptIfRunning, extractionTimeoutMs, TimeUnit.MILLISECONDS)
+                    : null;
+            try {
+                String content = extractTextFromFile(file);
+                budget.check();
+                return content;
+            } catch (CvExtractionAbortedException e) {
+                System.err.println("Extraction aborted for file: " + file.getName() + " - " + e.getMessage());
+                throw e;
+            } catch (IOException e) {
+                if (budget.isExpired()) {
+                    // Lecture interrompue par le watchdog
+                    throw new CvExtractionAbortedException("Extraction exceeded its time budget (" + extractionTimeoutMs + " ms)");
+                }
+                throw e;
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+        }
+    }
+
     private String extractTextFromFile(File file) throws IOException {
         String fileName = file.getName().toLowerCase();
 
@@ -90,6 +247,8 @@ public class CvExtractionService implements CvExtractionServiceInterface {
             } else if (fileName.endsWith(".txt")) {
                 return extractFromTxt(file);
             }
+        } catch (CvExtractionAbortedException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error extracting text from file: " + file.getName() + " - " + e.getMessage());
             e.printStackTrace();
@@ -99,25 +258,28 @@ public class CvExtractionService implements CvExtractionServiceInterface {
     }
 
     private String extractFromPdf(File file) throws IOException {
-        try (PDDocument document = PDDocument.load(file)) {
+        long start = System.nanoTime();
+        long startAllocated = ExtractionBudget.threadAllocatedBytes();
+
+        try (PDDocument document = loadPdf(file)) {
             if (document.isEncrypted()) {
                 System.err.println("PDF is encrypted: " + file.getName());
                 return null;
             }
 
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            pdfStripper.setSortByPosition(true);
-            pdfStripper.setStartPage(1);
-            pdfStripper.setEndPage(Math.min(3, document.getNumberOfPages())); // Limiter aux 3 premières pages
-
-            String text = pdfStripper.getText(document);
-            System.out.println("PDF extraction successful, text length: " + text.length());
+            String text = stripText(document);
+            long allocated = startAllocated < 0 ? -1 : ExtractionBudget.threadAllocatedBytes() - startAllocated;
+            System.out.println("PDF extraction successful, text length: " + text.length() +
+                    " (" + document.getNumberOfPages() + " pages, " + (System.nanoTime() - start) / 1_000_000 + " ms, " +
+                    (allocated < 0 ? "allocation not measured" : allocated / 1024 + " KB allocated") + ")");
 
             if (text.trim().isEmpty()) {
                 System.err.println("PDF text extraction returned empty content for: " + file.getName());
             }
 
             return text;
+        } catch (CvExtractionAbortedException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error extracting PDF: " + e.getMessage());
             e.printStackTrace();
@@ -125,10 +287,74 @@ public class CvExtractionService implements CvExtractionServiceInterface {
         }
     }
 
+    private String stripText(PDDocument document) throws IOException {
+        BudgetedPdfTextStripper pdfStripper = pdfStrippers.poll();
+        if (pdfStripper == null) {
+            pdfStripper = new BudgetedPdfTextStripper();
+        }
+
+        try {
+            pdfStripper.setStartPage(1);
+            pdfStripper.setEndPage(Math.min(3, document.getNumberOfPages())); // Limiter aux 3 premières pages
+            String text = pdfStripper.getText(document);
+            pdfStripper.reset();
+            if (!pdfStrippers.offer(pdfStripper)) {
+                pdfStripper.close();
+            }
+            return text;
+        } catch (IOException | RuntimeException e) {
+            // Un stripper interrompu en cours de page (budget dépassé, PDF invalide) n'est pas remis dans le pool
+            pdfStripper.close();
+            throw e;
+        }
+    }
+
+    // Tampon en mémoire borné par pdfMaxMainMemoryBytes, le reste va dans un fichier temporaire
+    private PDDocument loadPdf(File file) throws IOException {
+        MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupMixed(pdfMaxMainMemoryBytes);
+        if (!pdfMemoryMapped) {
+            return PDDocument.load(file, memoryUsage);
+        }
+
+        MappedRandomAccessRead source = new MappedRandomAccessRead(file.toPath());
+        ScratchFile scratchFile = new ScratchFile(memoryUsage);
+        try {
+            PDFParser parser = new PDFParser(source, scratchFile);
+            parser.parse();
+            return parser.getPDDocument();
+        } catch (IOException | RuntimeException e) {
+            scratchFile.close();
+            source.close();
+            throw e;
+        }
+    }
+
     private String extractFromDocx(File file) throws IOException {
+        if (!docxStreaming) {
+            return extractFromDocxModel(file);
+        }
+
+        long start = System.nanoTime();
+        try {
+            String result = new DocxTextExtractor(docxMaxPartBytes, docxMaxChars).extract(file);
+            System.out.println("DOCX extraction successful, text length: " + result.length() +
+                    " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            return result;
+        } catch (CvExtractionAbortedException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("Error extracting DOCX: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Ancienne extraction via le modèle objet POI: corps du document uniquement
+    private String extractFromDocxModel(File file) throws IOException {
         try (XWPFDocument document = new XWPFDocument(new FileInputStream(file))) {
             StringBuilder content = new StringBuilder();
             for (XWPFParagraph paragraph : document.getParagraphs()) {
+                ExtractionBudget.checkCurrent();
                 String text = paragraph.getText();
                 if (text != null && !text.trim().isEmpty()) {
                     content.append(text).append("\n");
@@ -137,6 +363,8 @@ public class CvExtractionService implements CvExtractionServiceInterface {
             String result = content.toString();
             System.out.println("DOCX extraction successful, text length: " + result.length());
             return result;
+        } catch (CvExtractionAbortedException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error extracting DOCX: " + e.getMessage());
             e.printStackTrace();
@@ -177,7 +405,7 @@ public class CvExtractionService implements CvExtractionServiceInterface {
         for (int i = 0; i < Math.min(10, lines.length); i++) {
             String line = lines[i].trim();
             if (line.length() > 2 && line.length() < 60) {
-                if (line.matches("^[A-Za-zÀ-ÿ\\s'.-]+$")) {
+                if (NAME_LINE_PATTERN.matcher(line).matches()) {
                     String[] words = line.split("\\s+");
                     if (words.length >= 2 && words.length <= 4) {
                         String lowerLine = line.toLowerCase();
@@ -191,12 +419,7 @@ public class CvExtractionService implements CvExtractionServiceInterface {
             }
         }
 
-        Pattern[] namePatterns = {
-                Pattern.compile("(?:nom|name|prénom|prenom)\\s*:?\\s*([A-Za-zÀ-ÿ\\s'.-]+)", Pattern.CASE_INSENSITIVE),
-                Pattern.compile("^([A-Za-zÀ-ÿ]+\\s+[A-Za-zÀ-ÿ]+)", Pattern.MULTILINE)
-        };
-
-        for (Pattern pattern : namePatterns) {
+        for (Pattern pattern : NAME_PATTERNS) {
             Matcher matcher = pattern.matcher(content);
             if (matcher.find()) {
                 String name = matcher.group(1).trim();
@@ -209,73 +432,18 @@ public class CvExtractionService implements CvExtractionServiceInterface {
         return null;
     }
 
-    private String extractEmail(String content) {
-        if (content == null) return null;
-
-        Pattern emailPattern = Pattern.compile(
-                "\\b[A-Za-z0-9]([A-Za-z0-9._%-]*[A-Za-z0-9])?@[A-Za-z0-9]([A-Za-z0-9.-]*[A-Za-z0-9])?\\.[A-Za-z]{2,}\\b"
-        );
-
-        Matcher matcher = emailPattern.matcher(content);
-        if (matcher.find()) {
-            return matcher.group().toLowerCase();
-        }
-        return null;
-    }
-
-    private String extractPhone(String content) {
-        if (content == null) return null;
-
-        Pattern[] phonePatterns = {
-                Pattern.compile("(?:\\+33|0)[1-9](?:[\\s.-]?\\d{2}){4}"), // Format français standard
-                Pattern.compile("\\+?\\d{1,4}[\\s.-]?\\(?\\d{1,4}\\)?[\\s.-]?\\d{1,4}[\\s.-]?\\d{1,4}[\\s.-]?\\d{1,4}"), // Format international
-                Pattern.compile("\\b\\d{10}\\b"), // 10 chiffres consécutifs
-                Pattern.compile("\\b\\d{2}[\\s.-]\\d{2}[\\s.-]\\d{2}[\\s.-]\\d{2}[\\s.-]\\d{2}\\b") // Format avec séparateurs
-        };
-
-        for (Pattern pattern : phonePatterns) {
-            Matcher matcher = pattern.matcher(content);
-            if (matcher.find()) {
-                String phone = matcher.group().trim();
-                String digitsOnly = phone.replaceAll("\\D", "");
-                if (digitsOnly.length() >= 8 && digitsOnly.length() <= 15) {
-                    return phone;
-                }
-            }
-        }
-        return null;
-    }
-
-    private String extractSkills(String content) {
+    private String extractSkills(String content, SectionMap sections, List<String> skillIds) {
         if (content == null) return null;
 
-        String lowerContent = content.toLowerCase();
         StringBuilder skills = new StringBuilder();
 
-        String[] skillsKeywords = {
-                "compétences", "compétence", "skills", "savoir-faire", "aptitudes",
-                "technologies", "technical skills", "outils", "logiciels", "connaissances"
-        };
-
-        for (String keyword : skillsKeywords) {
-            int index = lowerContent.indexOf(keyword);
-            if (index != -1) {
-                int startIndex = index;
-                int endIndex = findSectionEnd(lowerContent, index + keyword.length(),
-                        new String[]{"expérience", "experience", "formation", "education", "diplôme", "langues", "centres d'intérêt", "loisirs"});
-
-                if (endIndex > startIndex) {
-                    String skillsSection = content.substring(startIndex, endIndex);
-                    skills.append(cleanText(skillsSection)).append(" ");
-                }
-            }
+        for (String skillsSection : sections.texts(SectionType.SKILLS)) {
+            skills.append(cleanText(skillsSection)).append(" ");
         }
 
         List<String> foundSkills = new ArrayList<>();
-        for (String skill : COMMON_SKILLS) {
-            if (lowerContent.contains(skill.toLowerCase())) {
-                foundSkills.add(skill);
-            }
+        for (String skillId : skillIds) {
+            foundSkills.add(skillDictionary.getLabel(skillId));
         }
 
         if (!foundSkills.isEmpty()) {
@@ -286,69 +454,18 @@ public class CvExtractionService implements CvExtractionServiceInterface {
         return result.isEmpty() ? null : result;
     }
 
-    private String extractExperience(String content) {
+    private String extractExperience(String content, SectionMap sections) {
         if (content == null) return null;
 
-        String lowerContent = content.toLowerCase();
-        String[] expKeywords = {
-                "expérience", "expériences professionnelles", "experience", "work experience",
-                "professional experience", "emploi", "carrière", "parcours professionnel", "historique"
-        };
-
-        for (String keyword : expKeywords) {
-            int index = lowerContent.indexOf(keyword);
-            if (index != -1) {
-                int startIndex = index;
-                int endIndex = findSectionEnd(lowerContent, index + keyword.length(),
-                        new String[]{"formation", "education", "diplôme", "compétences", "langues", "centres d'intérêt"});
-
-                if (endIndex > startIndex) {
-                    String expSection = content.substring(startIndex, endIndex);
-                    return cleanText(expSection);
-                }
-            }
-        }
-        return null;
+        String expSection = sections.first(SectionType.EXPERIENCE);
+        return expSection != null ? cleanText(expSection) : null;
     }
 
-    private String extractEducation(String content) {
+    private String extractEducation(String content, SectionMap sections) {
         if (content == null) return null;
 
-        String lowerContent = content.toLowerCase();
-        String[] eduKeywords = {
-                "formation", "formations", "education", "diplômes", "diplôme", "études",
-                "academic", "university", "université", "école", "degree", "bts", "master",
-                "licence", "baccalauréat", "doctorat", "ingénieur"
-        };
-
-        for (String keyword : eduKeywords) {
-            int index = lowerContent.indexOf(keyword);
-            if (index != -1) {
-                int startIndex = index;
-                int endIndex = findSectionEnd(lowerContent, index + keyword.length(),
-                        new String[]{"expérience", "experience", "compétences", "langues", "centres d'intérêt", "loisirs"});
-
-                if (endIndex > startIndex) {
-                    String eduSection = content.substring(startIndex, endIndex);
-                    return cleanText(eduSection);
-                }
-            }
-        }
-        return null;
-    }
-
-    private int findSectionEnd(String lowerContent, int startPos, String[] endKeywords) {
-        int endIndex = lowerContent.length();
-
-        for (String endKeyword : endKeywords) {
-            int endPos = lowerContent.indexOf(endKeyword, startPos);
-            if (endPos != -1 && endPos < endIndex) {
-                endIndex = endPos;
-            }
-        }
-
-        // Limiter à 800 caractères maximum par section
-        return Math.min(endIndex, startPos + 800);
+        String eduSection = sections.first(SectionType.EDUCATION);
+        return eduSection != null ? cleanText(eduSection) : null;
     }
 
     private String cleanText(String text) {
@@ -374,4 +491,39 @@ public class CvExtractionService implements CvExtractionServiceInterface {
 
         return result.toString().trim();
     }
-}
\ No newline at end of file
+
+    // Vérifie le budget à chaque opérateur du flux de contenu, y compris les pages sans texte
+    private static class BudgetedPdfTextStripper extends PDFTextStripper {
+
+        // Document d'une page vide, passé dans reset() pour remplacer la dernière page gardée par le moteur
+        private final PDDocument blankDocument = new PDDocument();
+
+        private BudgetedPdfTextStripper() throws IOException {
+            super();
+            setSortByPosition(true);
+            PDPage blankPage = new PDPage();
+            blankPage.setContents(new PDStream(blankDocument));
+            blankDocument.addPage(blankPage);
+        }
+
+        // Relâche le document, le texte produit et les positions de la dernière page avant le retour au pool
+        private void reset() throws IOException {
+            setStartPage(1);
+            setEndPage(Integer.MAX_VALUE);
+            getText(blankDocument);
+            document = null;
+            output = null;
+            charactersByArticle.clear();
+        }
+
+        private void close() throws IOException {
+            blankDocument.close();
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            ExtractionBudget.checkCurrent();
+            super.processOperator(operator, operands);
+        }
+    }
+}
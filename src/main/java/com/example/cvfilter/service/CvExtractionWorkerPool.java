@@ -0,0 +1,151 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.exception.CvExtractionQueueFullException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CvExtractionWorkerPool {
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    @Value("${cv.extraction.parallelism:0}")
+    private int parallelism;
+
+    @Value("${cv.extraction.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private PriorityBlockingQueue<Runnable> queue;
+    private Semaphore capacity;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = createThreadFactory();
+
+        // La file à priorité n'est pas bornée: la limite est appliquée par le sémaphore dans submit
+        queue = new PriorityBlockingQueue<>(Math.max(11, queueCapacity));
+        capacity = new Semaphore(threads + queueCapacity);
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+
+        System.out.println("CV extraction worker pool started with " + threads + " workers (queue capacity: " + queueCapacity + ")");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Scans en arrière-plan: attend qu'une place se libère dans la file
+    public <T> Future<T> submit(Callable<T> task, Long jobOfferId, int priority) {
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CvExtractionQueueFullException("Interrupted while waiting for the extraction queue");
+        }
+        return execute(task, jobOfferId, priority);
+    }
+
+    // Threads de requête (upload, rattrapage): attente bornée, l'extraction n'est jamais faite par l'appelant
+    public <T> Future<T> submit(Callable<T> task, Long jobOfferId, int priority, long timeoutMs) {
+        try {
+            if (!capacity.tryAcquire(Math.max(0, timeoutMs), TimeUnit.MILLISECONDS)) {
+                throw new CvExtractionQueueFullException("CV extraction queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CvExtractionQueueFullException("Interrupted while waiting for the extraction queue");
+        }
+        return execute(task, jobOfferId, priority);
+    }
+
+    private <T> Future<T> execute(Callable<T> task, Long jobOfferId, int priority) {
+        PrioritizedTask<T> prioritizedTask = new PrioritizedTask<>(task, jobOfferId, priority, sequence.getAndIncrement());
+        try {
+            executor.execute(prioritizedTask);
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            throw e;
+        }
+        return prioritizedTask;
+    }
+
+    // Remonte les tâches déjà en file pour une offre; retourne le nombre de tâches en file pour cette offre
+    public int reprioritize(Long jobOfferId, int priority) {
+        int queued = 0;
+
+        for (Runnable runnable : queue.toArray(new Runnable[0])) {
+            if (runnable instanceof PrioritizedTask<?> task && jobOfferId.equals(task.jobOfferId)) {
+                if (task.priority < priority && queue.remove(task)) {
+                    task.priority = priority;
+                    queue.add(task);
+                }
+                queued++;
+            }
+        }
+
+        return queued;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // Threads virtuels si la JVM les supporte (Java 21+), threads classiques sinon
+    private ThreadFactory createThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "cv-extraction-", 1L);
+            ThreadFactory virtualFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            System.out.println("CV extraction worker pool using virtual threads");
+            return virtualFactory;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger(1);
+            return runnable -> {
+                Thread thread = new Thread(runnable, "cv-extraction-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    private class PrioritizedTask<T> extends FutureTask<T> implements Comparable<PrioritizedTask<?>> {
+        private final Long jobOfferId;
+        private final long sequence;
+        private volatile int priority;
+
+        private PrioritizedTask(Callable<T> callable, Long jobOfferId, int priority, long sequence) {
+            super(callable);
+            this.jobOfferId = jobOfferId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        protected void done() {
+            capacity.release();
+        }
+
+        // Priorité la plus haute d'abord, puis ordre de soumission
+        @Override
+        public int compareTo(PrioritizedTask<?> other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.dao.entity.CvInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+public class CvInfoCache {
+
+    @Value("${cv.extracted.info.file:cv_extracted_info.csv}")
+    private String extractedInfoFile;
+
+    @Value("${cv.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${cv.cache.watch-enabled:true}")
+    private boolean watchEnabled;
+
+    // Le CSV est écrit avec FileWriter, donc avec le charset par défaut de la JVM
+    private final Charset charset = Charset.defaultCharset();
+
+    // Partitions par offre d'emploi, en ordre d'accès pour l'éviction LRU (protégé par this)
+    private final LinkedHashMap<Long, Partition> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> evictedJobOffers = new HashSet<>();
+    private final Set<String> knownCvPaths = ConcurrentHashMap.newKeySet();
+
+    private long lastReadOffset = 0;
+    private long currentBytes = 0;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (watchEnabled) {
+            startWatcher();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Error closing CV cache watcher: " + e.getMessage());
+            }
+        }
+    }
+
+    public List<CvInfo> getCvsForJobOffer(Long jobOfferId) throws IOException {
+        synchronized (this) {
+            Partition partition = partitions.get(jobOfferId);
+            if (partition != null) {
+                return new ArrayList<>(partition.cvs);
+            }
+            if (!evictedJobOffers.contains(jobOfferId)) {
+                return new ArrayList<>();
+            }
+        }
+
+        return reloadPartition(jobOfferId);
+    }
+
+    public Set<String> getKnownCvPaths() {
+        return Collections.unmodifiableSet(knownCvPaths);
+    }
+
+    public synchronized void reload() {
+        partitions.clear();
+        evictedJobOffers.clear();
+        knownCvPaths.clear();
+        lastReadOffset = 0;
+        currentBytes = 0;
+
+        try {
+            refresh();
+            System.out.println("CV cache loaded " + knownCvPaths.size() + " records from " + extractedInfoFile +
+                    " (" + partitions.size() + " job offers, ~" + currentBytes + " bytes)");
+        } catch (IOException e) {
+            System.err.println("Error loading CV cache: " + e.getMessage());
+        }
+    }
+
+    // Lit uniquement les lignes ajoutées depuis le dernier offset lu
+    public synchronized void refresh() throws IOException {
+        Path csvPath = Paths.get(extractedInfoFile);
+        if (!Files.exists(csvPath)) {
+            return;
+        }
+
+        long size = Files.size(csvPath);
+        if (size < lastReadOffset) {
+            System.out.println("CSV file was truncated, reloading CV cache: " + extractedInfoFile);
+            lastReadOffset = 0;
+            partitions.clear();
+            evictedJobOffers.clear();
+            knownCvPaths.clear();
+            currentBytes = 0;
+        }
+        if (size == lastReadOffset) {
+            return;
+        }
+
+        boolean[] skipHeader = {lastReadOffset == 0};
+        int[] added = {0};
+        lastReadOffset = readLines(csvPath, lastReadOffset, size, line -> {
+            if (skipHeader[0]) {
+                skipHeader[0] = false;
+                return;
+            }
+            CvInfo cvInfo = parseCsvLine(line);
+            if (cvInfo != null) {
+                addToCache(cvInfo);
+                added[0]++;
+            }
+        });
+
+        if (added[0] > 0) {
+            evictIfNeeded();
+        }
+    }
+
+    private List<CvInfo> reloadPartition(Long jobOfferId) throws IOException {
+        List<CvInfo> cvs = new ArrayList<>();
+
+        synchronized (this) {
+            boolean[] skipHeader = {true};
+            readLines(Paths.get(extractedInfoFile), 0, lastReadOffset, line -> {
+                if (skipHeader[0]) {
+                    skipHeader[0] = false;
+                    return;
+                }
+                CvInfo cvInfo = parseCsvLine(line);
+                if (cvInfo != null && jobOfferId.equals(cvInfo.getJobOfferId())) {
+                    cvs.add(cvInfo);
+                }
+            });
+
+            Partition partition = new Partition();
+            for (CvInfo cvInfo : cvs) {
+                partition.add(cvInfo);
+            }
+            evictedJobOffers.remove(jobOfferId);
+            partitions.put(jobOfferId, partition);
+            currentBytes += partition.bytes;
+            evictIfNeeded();
+        }
+
+        System.out.println("CV cache reloaded " + cvs.size() + " CVs for evicted job offer " + jobOfferId);
+        return cvs;
+    }
+
+    // Parcourt les lignes complètes entre deux offsets et retourne l'offset qui suit le dernier '\n' lu
+    private long readLines(Path csvPath, long from, long to, Consumer<String> consumer) throws IOException {
+        long offset = from;
+        ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            channel.position(from);
+            long position = from;
+
+            while (position < to) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), to - position));
+                int read = channel.read(buffer);
+                if (read <= 0) {
+                    break;
+                }
+
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        String value = line.toString(charset);
+                        consumer.accept(value.endsWith("\r") ? value.substring(0, value.length() - 1) : value);
+                        line.reset();
+                        offset = position + i + 1;
+                    } else {
+                        line.write(bytes[i]);
+                    }
+                }
+                position += read;
+            }
+        }
+
+        return offset;
+    }
+
+    private void addToCache(CvInfo cvInfo) {
+        knownCvPaths.add(cvInfo.getCvPath());
+
+        Long jobOfferId = cvInfo.getJobOfferId();
+        if (evictedJobOffers.contains(jobOfferId)) {
+            return; // Sera relue depuis le disque à la prochaine demande
+        }
+
+        Partition partition = partitions.computeIfAbsent(jobOfferId, id -> new Partition());
+        currentBytes += partition.add(cvInfo);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, Partition>> iterator = partitions.entrySet().iterator();
+        while (currentBytes > maxBytes && partitions.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Long, Partition> eldest = iterator.next();
+            currentBytes -= eldest.getValue().bytes;
+            evictedJobOffers.add(eldest.getKey());
+            iterator.remove();
+            System.out.println("CV cache memory cap reached, evicted job offer " + eldest.getKey());
+        }
+    }
+
+    private void startWatcher() {
+        Path csvPath = Paths.get(extractedInfoFile).toAbsolutePath();
+        Path directory = csvPath.getParent();
+        Path fileName = csvPath.getFileName();
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Could not watch CSV file for changes: " + e.getMessage());
+            return;
+        }
+
+        watcherThread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+
+                if (changed) {
+                    try {
+                        refresh();
+                    } catch (IOException e) {
+                        System.err.println("Error refreshing CV cache: " + e.getMessage());
+                    }
+                }
+
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        }, "cv-info-cache-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private CvInfo parseCsvLine(String line) {
+        try {
+            List<String> fields = parseCsvFields(line);
+
+            if (fields.size() < 11) {
+                return null;
+            }
+
+            Long userId = Long.parseLong(fields.get(0));
+            Long jobOfferId = Long.parseLong(fields.get(1));
+            String cvPath = fields.get(2);
+
+            CvInfo cvInfo = new CvInfo(userId, jobOfferId, cvPath);
+            cvInfo.setName(fields.get(3));
+            cvInfo.setEmail(fields.get(4));
+            cvInfo.setPhone(fields.get(5));
+            cvInfo.setDescription(fields.get(6));
+            cvInfo.setSkills(fields.get(7));
+            cvInfo.setExperience(fields.get(8));
+            cvInfo.setEducation(fields.get(9));
+
+            String timestamp = fields.get(10);
+            cvInfo.setExtractedAt(LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+            if (fields.size() > 11 && !fields.get(11).isEmpty()) {
+                cvInfo.setContentHash(fields.get(11));
+            }
+            if (fields.size() > 12 && !fields.get(12).isEmpty()) {
+                cvInfo.setSkillIds(new ArrayList<>(Arrays.asList(fields.get(12).split("\\|"))));
+            }
+            if (fields.size() > 13 && !fields.get(13).isEmpty()) {
+                cvInfo.setLinkedinUrl(fields.get(13));
+            }
+            if (fields.size() > 14 && !fields.get(14).isEmpty()) {
+                cvInfo.setGithubUrl(fields.get(14));
+            }
+
+            return cvInfo;
+        } catch (Exception e) {
+            System.err.println("Error parsing CSV line: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> parseCsvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder currentField = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (c == '"' && !inQuotes) {
+                inQuotes = true;
+            } else if (c == '"' && inQuotes) {
+                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    // Escaped quote
+                    currentField.append('"');
+                    i++; // Skip next quote
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == ',' && !inQuotes) {
+                fields.add(currentField.toString());
+                currentField = new StringBuilder();
+            } else {
+                currentField.append(c);
+            }
+        }
+
+        fields.add(currentField.toString());
+        return fields;
+    }
+
+    private static long estimateSize(CvInfo cvInfo) {
+        long size = 160; // En-têtes d'objets, Long et LocalDateTime
+        for (String value : new String[]{cvInfo.getCvPath(), cvInfo.getName(), cvInfo.getEmail(), cvInfo.getPhone(),
+                cvInfo.getDescription(), cvInfo.getSkills(), cvInfo.getExperience(), cvInfo.getEducation(),
+                cvInfo.getLinkedinUrl(), cvInfo.getGithubUrl()}) {
+            if (value != null) {
+                size += 40 + 2L * value.length();
+            }
+        }
+        for (String skillId : cvInfo.getSkillIds()) {
+            size += 56 + 2L * skillId.length();
+        }
+        return size;
+    }
+
+    private static class Partition {
+        private final List<CvInfo> cvs = new ArrayList<>();
+        private long bytes;
+
+        private long add(CvInfo cvInfo) {
+            long size = estimateSize(cvInfo);
+            cvs.add(cvInfo);
+            bytes += size;
+            return size;
+        }
+    }
+}
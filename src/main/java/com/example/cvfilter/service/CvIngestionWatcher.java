@@ -0,0 +1,176 @@
+package com.example.cvfilter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class CvIngestionWatcher {
+
+    @Value("${cv.storage.path:data}")
+    private String storagePath;
+
+    @Value("${cv.ingestion.mode:watch}")
+    private String ingestionMode;
+
+    @Value("${cv.ingestion.debounce-ms:2000}")
+    private long debounceMs;
+
+    private final CvProcessingService cvProcessingService;
+
+    // Fichier modifié -> instant du dernier événement reçu
+    private final Map<Path, Long> pendingFiles = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private ScheduledExecutorService debounceExecutor;
+
+    public CvIngestionWatcher(CvProcessingService cvProcessingService) {
+        this.cvProcessingService = cvProcessingService;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!"watch".equalsIgnoreCase(ingestionMode)) {
+            System.out.println("CV ingestion watcher disabled (mode: " + ingestionMode + ")");
+            return;
+        }
+
+        Path storageDir = Paths.get(storagePath).toAbsolutePath();
+        try {
+            Files.createDirectories(storageDir);
+            watchService = FileSystems.getDefault().newWatchService();
+            register(storageDir);
+
+            File[] jobDirs = storageDir.toFile().listFiles(File::isDirectory);
+            if (jobDirs != null) {
+                for (File jobDir : jobDirs) {
+                    register(jobDir.toPath());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not start CV ingestion watcher, relying on reconciliation scan: " + e.getMessage());
+            return;
+        }
+
+        watcherThread = new Thread(() -> watchLoop(storageDir), "cv-ingestion-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        debounceExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cv-ingestion-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(100, debounceMs / 4);
+        debounceExecutor.scheduleWithFixedDelay(this::flushSettledFiles, period, period, TimeUnit.MILLISECONDS);
+
+        System.out.println("CV ingestion watcher started on " + storageDir + " (" + watchedDirectories.size() + " directories)");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (debounceExecutor != null) {
+            debounceExecutor.shutdownNow();
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Error closing CV ingestion watcher: " + e.getMessage());
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchedDirectories.put(key, directory);
+    }
+
+    private void watchLoop(Path storageDir) {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = watchedDirectories.get(key);
+            if (directory == null) {
+                key.reset();
+                continue;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Des événements ont été perdus: le prochain scan de réconciliation les rattrapera
+                    System.out.println("CV ingestion watcher overflow in " + directory);
+                    continue;
+                }
+
+                Path changed = directory.resolve((Path) event.context());
+
+                if (directory.equals(storageDir)) {
+                    if (Files.isDirectory(changed)) {
+                        onJobDirectoryCreated(changed);
+                    }
+                } else {
+                    pendingFiles.put(changed, System.currentTimeMillis());
+                }
+            }
+
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void onJobDirectoryCreated(Path jobDir) {
+        try {
+            register(jobDir);
+        } catch (IOException e) {
+            System.err.println("Could not watch new job directory " + jobDir + ": " + e.getMessage());
+            return;
+        }
+
+        // Des fichiers ont pu être écrits avant l'enregistrement du répertoire
+        File[] files = jobDir.toFile().listFiles();
+        if (files != null) {
+            long now = System.currentTimeMillis();
+            for (File file : files) {
+                pendingFiles.put(file.toPath(), now);
+            }
+        }
+    }
+
+    private void flushSettledFiles() {
+        long threshold = System.currentTimeMillis() - debounceMs;
+        List<File> settled = new ArrayList<>();
+
+        for (Map.Entry<Path, Long> entry : pendingFiles.entrySet()) {
+            if (entry.getValue() <= threshold && pendingFiles.remove(entry.getKey(), entry.getValue())) {
+                settled.add(entry.getKey().toFile());
+            }
+        }
+
+        if (!settled.isEmpty()) {
+            cvProcessingService.processChangedFiles(settled);
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.example.cvfilter.service;
 
+import com.example.cvfilter.dao.CvManifestDao;
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
 import com.example.cvfilter.dao.entity.CvInfo;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+import com.example.cvfilter.exception.CvExtractionAbortedException;
+import com.example.cvfilter.exception.CvExtractionQueueFullException;
 import com.example.cvfilter.service.impl.CvExtractionServiceInterface;
+import com.example.cvfilter.service.impl.IngestionPriorityServiceInterface;
+import com.example.cvfilter.util.ContentHashUtil;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,178 +37,709 @@ public class CvProcessingService {
     @Value("${cv.extracted.info.file:cv_extracted_info.csv}")
     private String extractedInfoFile;
 
-    private final CvExtractionServiceInterface cvExtractionService;
+    @Value("${cv.ingestion.catch-up-timeout-ms:10000}")
+    private long catchUpTimeoutMs;
+
+    @Value("${cv.extraction.max-failures:3}")
+    private int maxExtractionFailures;
 
-    private Set<String> processedFiles = new HashSet<>();
-    private Set<String> existingCvRecords = new HashSet<>();
+    @Value("${cv.extraction.submit-timeout-ms:500}")
+    private long submitTimeoutMs;
 
-    public CvProcessingService(CvExtractionService cvExtractionService) {
+    private static final int WRITER_BATCH_SIZE = 256;
+    private static final Set<CvExtractionStatus> RETRY_STATUSES =
+            EnumSet.of(CvExtractionStatus.QUEUED, CvExtractionStatus.EXTRACTING, CvExtractionStatus.FAILED);
+
+    private final CvExtractionServiceInterface cvExtractionService;
+    private final CvInfoCache cvInfoCache;
+    private final CvExtractionWorkerPool workerPool;
+    private final CvManifestDao cvManifestDao;
+    private final IngestionPriorityServiceInterface ingestionPriorityService;
+
+    // Candidatures (chemin, candidat, offre) réservées et pas encore écrites: ignorées par les scans.
+    // Le chemin seul ne suffit pas: un blob est partagé par toutes les candidatures de même contenu.
+    private final Set<String> inFlightApplications = ConcurrentHashMap.newKeySet();
+    // Extractions soumises et pas encore écrites: le rattrapage attend leur écriture
+    private final Set<PendingExtraction> pendingExtractions = ConcurrentHashMap.newKeySet();
+    // Résultats des workers: seul resultWriter écrit le CSV et le manifeste final
+    private final BlockingQueue<PendingExtraction> completedExtractions = new LinkedBlockingQueue<>();
+    private Thread resultWriter;
+
+    public CvProcessingService(CvExtractionService cvExtractionService, CvInfoCache cvInfoCache,
+                               CvExtractionWorkerPool workerPool, CvManifestDao cvManifestDao,
+                               IngestionPriorityServiceInterface ingestionPriorityService) {
         this.cvExtractionService = cvExtractionService;
+        this.cvInfoCache = cvInfoCache;
+        this.workerPool = workerPool;
+        this.cvManifestDao = cvManifestDao;
+        this.ingestionPriorityService = ingestionPriorityService;
     }
 
     @PostConstruct
     public void init() {
-        loadExistingCvRecords();
+        resultWriter = new Thread(this::writeCompletedExtractions, "cv-result-writer");
+        resultWriter.setDaemon(true);
+        resultWriter.start();
     }
 
-    private void loadExistingCvRecords() {
-        if (extractedInfoFile == null) {
-            System.out.println("extractedInfoFile is null, skipping loading existing records");
-            return;
+    @PreDestroy
+    public void shutdown() {
+        resultWriter.interrupt();
+    }
+
+    // Scan complet de réconciliation; en mode watch, les nouveaux fichiers sont traités par CvIngestionWatcher
+    @Scheduled(fixedRateString = "${cv.ingestion.reconcile-interval-ms:900000}")
+    public synchronized void processCvsAndExtractInfo() {
+        try {
+            List<PendingExtraction> pending = new ArrayList<>();
+
+            File storageDir = new File(storagePath);
+            File[] jobDirs = storageDir.exists() ? storageDir.listFiles(File::isDirectory) : null;
+            if (jobDirs == null) {
+                System.out.println("No job directories found in: " + storagePath);
+                jobDirs = new File[0];
+            }
+
+            System.out.println("=== CV Processing Started at " + LocalDateTime.now() + " ===");
+            System.out.println("Scanning " + jobDirs.length + " job directories...");
+
+            Map<File, Long> jobIds = new LinkedHashMap<>();
+            Map<Long, Integer> priorities = new HashMap<>();
+            for (File jobDir : jobDirs) {
+                // Extract job ID from directory name
+                Long jobOfferId = extractJobIdFromDirectoryName(jobDir.getName());
+                if (jobOfferId == null) {
+                    System.out.println("  Could not extract job offer ID from directory: " + jobDir.getName());
+                    continue;
+                }
+                jobIds.put(jobDir, jobOfferId);
+                priorities.put(jobOfferId, ingestionPriorityService.getPriority(jobOfferId));
+            }
+
+            // Les offres les plus prioritaires sont soumises en premier
+            List<File> orderedJobDirs = new ArrayList<>(jobIds.keySet());
+            orderedJobDirs.sort((a, b) -> Integer.compare(priorities.get(jobIds.get(b)), priorities.get(jobIds.get(a))));
+
+            for (File jobDir : orderedJobDirs) {
+                Long jobOfferId = jobIds.get(jobDir);
+                System.out.println("Processing job directory: " + jobDir.getName() + " (priority: " + priorities.get(jobOfferId) + ")");
+
+                File[] cvFiles = jobDir.listFiles(this::isCvFile);
+
+                if (cvFiles != null && cvFiles.length > 0) {
+                    System.out.println("Found " + cvFiles.length + " CV files in job directory: " + jobDir.getName() + " (Job ID: " + jobOfferId + ")");
+                    submitForCollection(prepareJobFiles(jobOfferId, Arrays.asList(cvFiles), CvExtractionStatus.EXTRACTING),
+                            priorities.get(jobOfferId), pending);
+                } else {
+                    System.out.println("No valid CV files found in directory: " + jobDir.getName());
+                }
+            }
+
+            // CVs hors des dossiers d'offre (stockage par contenu): seul le manifeste les référence.
+            // Les entrées QUEUED/EXTRACTING non réservées ont été reportées (file pleine) ou interrompues par un arrêt.
+            Map<Long, List<PendingExtraction>> stranded = new LinkedHashMap<>();
+            for (PendingExtraction extraction : prepareManifestEntries(cvManifestDao.findByStatusIn(RETRY_STATUSES), CvExtractionStatus.EXTRACTING)) {
+                stranded.computeIfAbsent(extraction.entry.getJobOfferId(), id -> new ArrayList<>()).add(extraction);
+            }
+            for (Map.Entry<Long, List<PendingExtraction>> job : stranded.entrySet()) {
+                System.out.println("Retrying " + job.getValue().size() + " pending CVs from manifest (Job ID: " + job.getKey() + ")");
+                submitForCollection(job.getValue(), ingestionPriorityService.getPriority(job.getKey()), pending);
+            }
+
+            awaitWrites(pending);
+
+        } catch (Exception e) {
+            System.err.println("Error in CV processing scheduled task: " + e.getMessage());
+            e.printStackTrace();
         }
+    }
 
-        File csvFile = new File(extractedInfoFile);
-        if (!csvFile.exists()) {
-            System.out.println("CSV file does not exist: " + extractedInfoFile);
-            return;
+    public synchronized void processChangedFiles(Collection<File> changedFiles) {
+        try {
+            Map<Long, List<File>> filesByJob = new LinkedHashMap<>();
+
+            for (File cvFile : changedFiles) {
+                File jobDir = cvFile.getParentFile();
+                if (jobDir == null || !isCvFile(cvFile)) {
+                    continue;
+                }
+
+                Long jobOfferId = extractJobIdFromDirectoryName(jobDir.getName());
+                if (jobOfferId == null) {
+                    System.out.println("  Could not extract job offer ID from directory: " + jobDir.getName());
+                    continue;
+                }
+                filesByJob.computeIfAbsent(jobOfferId, id -> new ArrayList<>()).add(cvFile);
+            }
+
+            if (filesByJob.isEmpty()) {
+                return;
+            }
+
+            System.out.println("=== CV Ingestion of " + changedFiles.size() + " changed files at " + LocalDateTime.now() + " ===");
+
+            List<PendingExtraction> pending = new ArrayList<>();
+            for (Map.Entry<Long, List<File>> entry : filesByJob.entrySet()) {
+                int priority = ingestionPriorityService.getPriority(entry.getKey());
+                submitForCollection(prepareJobFiles(entry.getKey(), entry.getValue(), CvExtractionStatus.EXTRACTING),
+                        priority, pending);
+            }
+
+            awaitWrites(pending);
+
+        } catch (Exception e) {
+            System.err.println("Error in CV ingestion of changed files: " + e.getMessage());
+            e.printStackTrace();
         }
+    }
+
+    boolean isCvFile(File file) {
+        if (!file.isFile()) return false;
+        String name = file.getName().toLowerCase();
+        return name.endsWith(".pdf") || name.endsWith(".docx") || name.endsWith(".txt");
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
-            // Skip header
-            reader.readLine();
+    // Réserve les candidatures à extraire (inFlightApplications) et enregistre leur état dans le manifeste
+    private List<PendingExtraction> prepareJobFiles(Long jobOfferId, List<File> cvFiles, CvExtractionStatus initialStatus) {
+        Map<String, CvManifestEntry> manifest = new HashMap<>();
+        for (CvManifestEntry entry : cvManifestDao.findByJobOfferId(jobOfferId)) {
+            manifest.put(entry.getPath() + "#" + entry.getUserId(), entry);
+        }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Extract the cv_path from the CSV line
-                String[] parts = parseCsvLine(line);
-                if (parts.length >= 3) {
-                    String cvPath = parts[2].replace("\"", "");
-                    existingCvRecords.add(cvPath);
+        List<CvManifestEntry> updatedEntries = new ArrayList<>();
+        List<PendingExtraction> toExtract = new ArrayList<>();
+        List<String> released = new ArrayList<>();
+        Set<String> batchHashes = new HashSet<>();
+
+        for (File cvFile : cvFiles) {
+            String cvPath = cvFile.getAbsolutePath();
+
+            Long userId = extractUserIdFromFilename(cvFile.getName());
+            if (userId == null) {
+                System.out.println("  ✗ Could not extract user ID from filename: " + cvFile.getName());
+                continue;
+            }
+
+            CvManifestEntry entry = manifest.get(cvPath + "#" + userId);
+            if (entry != null && entry.isTerminal()) {
+                System.out.println("  Skipping already processed file: " + cvFile.getName() + " (" + entry.getStatus() + ")");
+                continue;
+            }
+            if (entry != null && entry.getStatus() == CvExtractionStatus.QUARANTINED) {
+                if (Objects.equals(entry.getFileSize(), cvFile.length()) && Objects.equals(entry.getLastModified(), cvFile.lastModified())) {
+                    System.out.println("  Skipping quarantined file: " + cvFile.getName() + " (" + entry.getLastError() + ")");
+                    continue;
                 }
+                // Le fichier a été remplacé: le disjoncteur est réarmé
+                entry.setFailureCount(0);
+            }
+            String reservation = reservationKey(cvPath, userId, jobOfferId);
+            if (!inFlightApplications.add(reservation)) {
+                System.out.println("  Skipping file queued for extraction: " + cvFile.getName());
+                continue;
+            }
+
+            // Validate file before processing
+            if (!validateFile(cvFile)) {
+                inFlightApplications.remove(reservation);
+                continue;
+            }
+
+            if (entry == null) {
+                entry = new CvManifestEntry(cvPath, userId, jobOfferId);
+            }
+            entry.setFileSize(cvFile.length());
+            entry.setLastModified(cvFile.lastModified());
+
+            try {
+                entry.setContentHash(ContentHashUtil.sha256(cvFile.toPath()));
+            } catch (IOException e) {
+                System.err.println("  ✗ Could not hash CV file: " + cvFile.getName() + " - " + e.getMessage());
+                inFlightApplications.remove(reservation);
+                continue;
+            }
+
+            // CV déjà présent dans le CSV avant l'introduction du manifeste
+            if (cvInfoCache.getKnownCvPaths().contains(cvPath)) {
+                System.out.println("  Skipping CV already in CSV: " + cvFile.getName());
+                entry.setStatus(CvExtractionStatus.INDEXED);
+                updatedEntries.add(entry);
+                released.add(reservation);
+                continue;
+            }
+
+            String hashKey = entry.getContentHash() + "#" + userId;
+            if (!batchHashes.add(hashKey) || isDuplicateContent(entry)) {
+                System.out.println("  Skipping byte-identical re-upload: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
+                entry.setStatus(CvExtractionStatus.DUPLICATE);
+                updatedEntries.add(entry);
+                released.add(reservation);
+                continue;
+            }
+
+            entry.setStatus(initialStatus);
+            updatedEntries.add(entry);
+            toExtract.add(new PendingExtraction(cvFile, entry));
+        }
+
+        try {
+            if (!updatedEntries.isEmpty()) {
+                cvManifestDao.saveAll(updatedEntries);
             }
-            System.out.println("Loaded " + existingCvRecords.size() + " existing CV records from CSV");
-        } catch (IOException e) {
-            System.err.println("Error loading existing CV records: " + e.getMessage());
+        } catch (RuntimeException e) {
+            release(toExtract);
+            throw e;
+        } finally {
+            inFlightApplications.removeAll(released);
         }
+
+        return toExtract;
     }
-    private String[] parseCsvLine(String line) {
-        List<String> values = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder value = new StringBuilder();
 
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(value.toString());
-                value = new StringBuilder();
-            } else {
-                value.append(c);
+    // Réserve les entrées hors des dossiers d'offre (déjà couverts par le scan) dont le fichier existe toujours
+    private List<PendingExtraction> prepareManifestEntries(List<CvManifestEntry> entries, CvExtractionStatus initialStatus) {
+        List<CvManifestEntry> updatedEntries = new ArrayList<>();
+        List<PendingExtraction> toExtract = new ArrayList<>();
+        Path storageRoot = Paths.get(storagePath).toAbsolutePath();
+
+        for (CvManifestEntry entry : entries) {
+            File cvFile = new File(entry.getPath());
+            String reservation = reservationKey(entry.getPath(), entry.getUserId(), entry.getJobOfferId());
+            if (cvFile.toPath().startsWith(storageRoot) || !cvFile.isFile() || !inFlightApplications.add(reservation)) {
+                continue;
             }
+            // Relu après la réservation: l'extraction a pu être écrite entre la requête et la réservation
+            Optional<CvManifestEntry> current = cvManifestDao.findByPath(entry.getPath(), entry.getUserId(), entry.getJobOfferId());
+            if (current.isEmpty() || !RETRY_STATUSES.contains(current.get().getStatus())) {
+                inFlightApplications.remove(reservation);
+                continue;
+            }
+            entry = current.get();
+            entry.setStatus(initialStatus);
+            updatedEntries.add(entry);
+            toExtract.add(new PendingExtraction(cvFile, entry));
         }
-        values.add(value.toString());
-        return values.toArray(new String[0]);
+
+        try {
+            if (!updatedEntries.isEmpty()) {
+                cvManifestDao.saveAll(updatedEntries);
+            }
+        } catch (RuntimeException e) {
+            release(toExtract);
+            throw e;
+        }
+        return toExtract;
     }
 
-    private boolean isCvAlreadyProcessed(String cvPath) {
-        return existingCvRecords.contains(cvPath);
+    private void submitForCollection(List<PendingExtraction> extractions, int priority, List<PendingExtraction> pending) {
+        for (int i = 0; i < extractions.size(); i++) {
+            PendingExtraction extraction = extractions.get(i);
+            System.out.println("  Queuing CV: " + extraction.cvFile.getName() + " for user: " + extraction.entry.getUserId()
+                    + " (Job: " + extraction.entry.getJobOfferId() + ")");
+            try {
+                submitExtraction(extraction, priority, -1);
+            } catch (RuntimeException e) {
+                release(extractions.subList(i, extractions.size()));
+                throw e;
+            }
+            pending.add(extraction);
+        }
     }
 
-    @Scheduled(fixedRate = 60000)
-    public void processCvsAndExtractInfo() {
+    // timeoutMs < 0: attend une place dans la file (scans); sinon CvExtractionQueueFullException au-delà du délai
+    private void submitExtraction(PendingExtraction extraction, int priority, long timeoutMs) {
+        Callable<Void> task = () -> {
+            extractAndPublish(extraction);
+            return null;
+        };
+        Long jobOfferId = extraction.entry.getJobOfferId();
+
+        pendingExtractions.add(extraction);
         try {
-            List<CvInfo> extractedInfos = new ArrayList<>();
+            if (timeoutMs < 0) {
+                workerPool.submit(task, jobOfferId, priority);
+            } else {
+                workerPool.submit(task, jobOfferId, priority, timeoutMs);
+            }
+        } catch (RuntimeException e) {
+            pendingExtractions.remove(extraction);
+            throw e;
+        }
+    }
 
-            File storageDir = new File(storagePath);
-            if (!storageDir.exists()) {
-                System.out.println("Storage directory does not exist: " + storagePath);
+    // Rattrapage avant un classement: extrait en priorité les CVs en attente de cette offre
+    // et attend que leurs lignes soient dans le CSV (et donc dans CvInfoCache)
+    public void catchUpJobOffer(Long jobOfferId) {
+        ingestionPriorityService.recordRankingRequest(jobOfferId);
+        int priority = ingestionPriorityService.getPriority(jobOfferId);
+        long deadline = System.currentTimeMillis() + catchUpTimeoutMs;
+
+        workerPool.reprioritize(jobOfferId, priority);
+
+        File[] jobDirs = new File(storagePath).listFiles(File::isDirectory);
+        if (jobDirs != null) {
+            for (File jobDir : jobDirs) {
+                if (!jobOfferId.equals(extractJobIdFromDirectoryName(jobDir.getName()))) {
+                    continue;
+                }
+
+                File[] cvFiles = jobDir.listFiles(this::isCvFile);
+                if (cvFiles == null || cvFiles.length == 0) {
+                    continue;
+                }
+
+                submitBeforeDeadline(prepareJobFiles(jobOfferId, Arrays.asList(cvFiles), CvExtractionStatus.QUEUED),
+                        jobOfferId, priority, deadline);
+            }
+        }
+
+        // CVs du stockage par contenu (hors des dossiers d'offre): entrées reportées par un upload, interrompues ou en échec
+        List<CvManifestEntry> retryable = new ArrayList<>();
+        for (CvManifestEntry entry : cvManifestDao.findByJobOfferId(jobOfferId)) {
+            if (RETRY_STATUSES.contains(entry.getStatus())) {
+                retryable.add(entry);
+            }
+        }
+        submitBeforeDeadline(prepareManifestEntries(retryable, CvExtractionStatus.QUEUED), jobOfferId, priority, deadline);
+
+        // Extractions de cette offre soumises par le rattrapage, les scans ou les uploads
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (PendingExtraction extraction : pendingExtractions) {
+            if (jobOfferId.equals(extraction.entry.getJobOfferId())) {
+                writes.add(extraction.written);
+            }
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        System.out.println("Catching up " + writes.size() + " pending CVs for job offer " + jobOfferId + " before ranking");
+        for (CompletableFuture<Void> write : writes) {
+            try {
+                write.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                System.out.println("Catch-up for job offer " + jobOfferId + " timed out, ranking with indexed CVs");
+                return;
+            } catch (ExecutionException e) {
+                // Déjà journalisé par l'écrivain; le fichier sera retraité
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
             }
+        }
+    }
 
-            File[] jobDirs = storageDir.listFiles(File::isDirectory);
-            if (jobDirs == null) {
-                System.out.println("No job directories found in: " + storagePath);
+    private void submitBeforeDeadline(List<PendingExtraction> prepared, Long jobOfferId, int priority, long deadline) {
+        for (int i = 0; i < prepared.size(); i++) {
+            try {
+                submitExtraction(prepared.get(i), priority, Math.max(0, deadline - System.currentTimeMillis()));
+            } catch (CvExtractionQueueFullException e) {
+                // Les CVs restants gardent le statut QUEUED et seront repris par le prochain scan
+                release(prepared.subList(i, prepared.size()));
+                System.out.println("Extraction queue full, " + (prepared.size() - i) + " CVs of job offer " + jobOfferId + " left for the next scan");
                 return;
             }
+        }
+    }
 
-            System.out.println("=== CV Processing Started at " + LocalDateTime.now() + " ===");
-            System.out.println("Scanning " + jobDirs.length + " job directories...");
+    private static String reservationKey(String cvPath, Long userId, Long jobOfferId) {
+        return cvPath + "#" + userId + "#" + jobOfferId;
+    }
 
-            for (File jobDir : jobDirs) {
-                System.out.println("Processing job directory: " + jobDir.getName());
+    private void release(List<PendingExtraction> extractions) {
+        extractions.forEach(extraction -> inFlightApplications.remove(extraction.reservation));
+    }
 
-                // Extract job ID from directory name
-                Long jobOfferId = extractJobIdFromDirectoryName(jobDir.getName());
-                if (jobOfferId == null) {
-                    System.out.println("  Could not extract job offer ID from directory: " + jobDir.getName());
+    private static boolean isExtracted(CvManifestEntry entry) {
+        return entry.getStatus() == CvExtractionStatus.INDEXED || entry.getStatus() == CvExtractionStatus.EMPTY;
+    }
+
+    private boolean isDuplicateContent(CvManifestEntry entry) {
+        for (CvManifestEntry existing : cvManifestDao.findByContentHash(entry.getContentHash(), entry.getUserId(), entry.getJobOfferId())) {
+            if (isExtracted(existing) && !existing.getPath().equals(entry.getPath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Les résultats sont écrits au fil de l'eau par resultWriter; le scan attend leur écriture avant de rendre la main
+    private void awaitWrites(List<PendingExtraction> pending) throws InterruptedException {
+        for (PendingExtraction extraction : pending) {
+            try {
+                extraction.written.get();
+            } catch (ExecutionException e) {
+                // Déjà journalisé par l'écrivain; le fichier sera retraité
+            }
+        }
+    }
+
+    // Exécuté par les workers: extrait puis passe le résultat à l'écrivain, sans jamais écrire le CSV
+    private void extractAndPublish(PendingExtraction extraction) {
+        CvManifestEntry entry = extraction.entry;
+        try {
+            if (entry.getStatus() != CvExtractionStatus.EXTRACTING) {
+                entry.setStatus(CvExtractionStatus.EXTRACTING);
+                cvManifestDao.save(entry);
+            }
+
+            CvInfo cvInfo = cvExtractionService.extractCvInfo(extraction.cvFile, entry.getUserId(), entry.getJobOfferId(), entry.getContentHash());
+            applyResult(entry, cvInfo);
+            extraction.cvInfo = cvInfo;
+        } catch (Exception e) {
+            System.err.println("  ✗ Error processing CV file: " + extraction.cvFile.getName() + " - " + e.getMessage());
+            e.printStackTrace();
+            applyFailure(entry, e);
+        } finally {
+            completedExtractions.add(extraction);
+        }
+    }
+
+    // Écrivain unique: les résultats sont écrits par lots, dans l'ordre où les workers les ont terminés
+    private void writeCompletedExtractions() {
+        List<PendingExtraction> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(completedExtractions.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            completedExtractions.drainTo(batch, WRITER_BATCH_SIZE - 1);
+            writeResults(batch);
+            batch.clear();
+        }
+    }
+
+    // Le CSV est écrit avant le manifeste: en cas d'échec, les fichiers seront retraités
+    private void writeResults(List<PendingExtraction> batch) {
+        List<CvInfo> extractedInfos = new ArrayList<>();
+        List<CvManifestEntry> entries = new ArrayList<>();
+        for (PendingExtraction extraction : batch) {
+            if (extraction.cvInfo != null) {
+                extractedInfos.add(extraction.cvInfo);
+            }
+            entries.add(extraction.entry);
+        }
+
+        try {
+            saveExtractedInfos(extractedInfos);
+            cvManifestDao.saveAll(entries);
+            batch.forEach(extraction -> extraction.written.complete(null));
+        } catch (Exception e) {
+            System.err.println("Error writing " + batch.size() + " extraction results: " + e.getMessage());
+            e.printStackTrace();
+            batch.forEach(extraction -> extraction.written.completeExceptionally(e));
+        } finally {
+            for (PendingExtraction extraction : batch) {
+                inFlightApplications.remove(extraction.reservation);
+                pendingExtractions.remove(extraction);
+            }
+        }
+    }
+
+    // Point d'entrée direct depuis l'upload: pas besoin d'attendre un scan ni de parser le nom du fichier
+    public CvManifestEntry enqueue(File cvFile, Long userId, Long jobOfferId) throws IOException {
+        return enqueue(cvFile, userId, jobOfferId, ContentHashUtil.sha256(cvFile.toPath()));
+    }
+
+    // Hash déjà calculé pendant l'écriture de l'upload: le fichier n'est pas relu
+    public CvManifestEntry enqueue(File cvFile, Long userId, Long jobOfferId, String contentHash) {
+        String cvPath = cvFile.getAbsolutePath();
+        Optional<CvManifestEntry> existing = cvManifestDao.findByPath(cvPath, userId, jobOfferId);
+        if (existing.isPresent() && isExtracted(existing.get()) && contentHash.equals(existing.get().getContentHash())) {
+            // Stockage par contenu: même fichier, même chemin, candidature déjà extraite
+            System.out.println("CV already extracted: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
+            return existing.get();
+        }
+        String reservation = reservationKey(cvPath, userId, jobOfferId);
+        if (!inFlightApplications.add(reservation)) {
+            // Même candidature déjà réservée par un scan ou un autre upload: son extraction est en cours
+            System.out.println("CV already queued: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
+            return cvManifestDao.findByPath(cvPath, userId, jobOfferId).orElseGet(() -> queuedEntry(cvPath, userId, jobOfferId));
+        }
+
+        try {
+            CvManifestEntry entry = existing.orElseGet(() -> new CvManifestEntry(cvPath, userId, jobOfferId));
+            entry.setFileSize(cvFile.length());
+            entry.setLastModified(cvFile.lastModified());
+            entry.setContentHash(contentHash);
+            entry.setTrackingId(UUID.randomUUID().toString());
+
+            if (isDuplicateContent(entry)) {
+                System.out.println("Skipping byte-identical re-upload: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
+                entry.setStatus(CvExtractionStatus.DUPLICATE);
+                inFlightApplications.remove(reservation);
+                return cvManifestDao.save(entry);
+            }
+
+            entry.setStatus(CvExtractionStatus.QUEUED);
+            CvManifestEntry queued = cvManifestDao.save(entry);
+
+            try {
+                submitExtraction(new PendingExtraction(cvFile, queued), ingestionPriorityService.getPriority(jobOfferId), submitTimeoutMs);
+                System.out.println("Queued CV: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ", tracking: " + queued.getTrackingId() + ")");
+            } catch (CvExtractionQueueFullException e) {
+                // File pleine: l'entrée reste QUEUED et sera reprise par le prochain scan ou rattrapage
+                inFlightApplications.remove(reservation);
+                System.out.println("Extraction queue full, deferred CV: " + cvFile.getName() + " (tracking: " + queued.getTrackingId() + ")");
+            }
+            return queued;
+        } catch (RuntimeException e) {
+            inFlightApplications.remove(reservation);
+            throw e;
+        }
+    }
+
+    // Entrée pas encore enregistrée par le scan qui a réservé la candidature
+    private static CvManifestEntry queuedEntry(String cvPath, Long userId, Long jobOfferId) {
+        CvManifestEntry entry = new CvManifestEntry(cvPath, userId, jobOfferId);
+        entry.setStatus(CvExtractionStatus.QUEUED);
+        return entry;
+    }
+
+    // Upload groupé: un seul enregistrement du manifeste pour tout le lot, puis extraction en parallèle.
+    // Les fichiers (avec leur hash déjà calculé) sont renvoyés dans le même ordre que les entrées.
+    public List<CvManifestEntry> enqueueAll(LinkedHashMap<File, String> filesWithHash, Long userId, Long jobOfferId) {
+        List<File> cvFiles = new ArrayList<>(filesWithHash.keySet());
+        // Réservations prises par ce lot; null si la candidature est déjà en cours (scan ou autre upload)
+        List<String> reservations = new ArrayList<>();
+        for (File cvFile : cvFiles) {
+            String reservation = reservationKey(cvFile.getAbsolutePath(), userId, jobOfferId);
+            reservations.add(inFlightApplications.add(reservation) ? reservation : null);
+        }
+
+        try {
+            // Entrées et contenus déjà extraits pour ce candidat et cette offre: une seule requête pour tout le lot
+            Set<String> extractedHashes = new HashSet<>();
+            Map<String, CvManifestEntry> existingByPath = new HashMap<>();
+            for (CvManifestEntry existing : cvManifestDao.findByJobOfferId(jobOfferId)) {
+                if (!userId.equals(existing.getUserId())) {
                     continue;
                 }
+                existingByPath.put(existing.getPath(), existing);
+                if (isExtracted(existing) && existing.getContentHash() != null) {
+                    extractedHashes.add(existing.getContentHash());
+                }
+            }
 
-                File[] cvFiles = jobDir.listFiles(file -> {
-                    if (!file.isFile()) return false;
-                    String name = file.getName().toLowerCase();
-                    return name.endsWith(".pdf") || name.endsWith(".docx") || name.endsWith(".txt");
-                });
+            List<CvManifestEntry> entries = new ArrayList<>();
+            List<Integer> toSave = new ArrayList<>();
+            List<CvManifestEntry> toSaveEntries = new ArrayList<>();
+            Set<String> batchHashes = new HashSet<>();
+            for (int i = 0; i < cvFiles.size(); i++) {
+                File cvFile = cvFiles.get(i);
+                String contentHash = filesWithHash.get(cvFile);
+                CvManifestEntry entry = existingByPath.get(cvFile.getAbsolutePath());
+                if (reservations.get(i) == null) {
+                    // Déjà en cours d'extraction: l'entrée est renvoyée sans être resoumise
+                    System.out.println("CV already queued: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
+                    batchHashes.add(contentHash);
+                    entries.add(entry != null ? entry : queuedEntry(cvFile.getAbsolutePath(), userId, jobOfferId));
+                    continue;
+                }
+                if (entry != null && isExtracted(entry) && contentHash.equals(entry.getContentHash())) {
+                    // Stockage par contenu: candidature déjà extraite, l'entrée est renvoyée telle quelle
+                    batchHashes.add(contentHash);
+                    entries.add(entry);
+                    continue;
+                }
+                if (entry == null) {
+                    entry = new CvManifestEntry(cvFile.getAbsolutePath(), userId, jobOfferId);
+                }
+                entry.setFileSize(cvFile.length());
+                entry.setLastModified(cvFile.lastModified());
+                entry.setContentHash(contentHash);
+                entry.setTrackingId(UUID.randomUUID().toString());
+
+                boolean duplicate = extractedHashes.contains(contentHash) || !batchHashes.add(contentHash);
+                entry.setStatus(duplicate ? CvExtractionStatus.DUPLICATE : CvExtractionStatus.QUEUED);
+                entries.add(entry);
+                toSave.add(i);
+                toSaveEntries.add(entry);
+            }
 
-                if (cvFiles != null && cvFiles.length > 0) {
-                    System.out.println("Found " + cvFiles.length + " CV files in job directory: " + jobDir.getName() + " (Job ID: " + jobOfferId + ")");
+            List<CvManifestEntry> saved = cvManifestDao.saveAll(toSaveEntries);
+            for (int j = 0; j < toSave.size(); j++) {
+                entries.set(toSave.get(j), saved.get(j));
+            }
 
-                    for (File cvFile : cvFiles) {
-                        String fileKey = cvFile.getAbsolutePath() + "_" + cvFile.lastModified();
-
-                        // Skip if already processed in this session
-                        if (processedFiles.contains(fileKey)) {
-                            System.out.println("  Skipping already processed file: " + cvFile.getName());
-                            continue;
-                        }
-
-                        // Skip if already exists in CSV
-                        if (isCvAlreadyProcessed(cvFile.getAbsolutePath())) {
-                            System.out.println("  Skipping CV already in CSV: " + cvFile.getName());
-                            processedFiles.add(fileKey);
-                            continue;
-                        }
-
-                        try {
-                            // Validate file before processing
-                            if (!validateFile(cvFile)) {
-                                continue;
-                            }
-
-                            Long userId = extractUserIdFromFilename(cvFile.getName());
-                            if (userId != null) {
-                                System.out.println("  Processing CV: " + cvFile.getName() + " for user: " + userId + " (Job: " + jobOfferId + ")");
-
-                                CvInfo cvInfo = cvExtractionService.extractCvInfo(cvFile, userId, jobOfferId);
-
-                                if (validateExtractedInfo(cvInfo)) {
-                                    extractedInfos.add(cvInfo);
-                                    processedFiles.add(fileKey);
-                                    existingCvRecords.add(cvFile.getAbsolutePath());
-                                    System.out.println("  ✓ Successfully processed CV for user: " + userId + " (Job: " + jobOfferId + ")");
-                                } else {
-                                    System.out.println("  ⚠ CV processed but no meaningful data extracted for user: " + userId + " (Job: " + jobOfferId + ")");
-                                    extractedInfos.add(cvInfo);
-                                    processedFiles.add(fileKey);
-                                    existingCvRecords.add(cvFile.getAbsolutePath());
-                                }
-                            } else {
-                                System.out.println("  ✗ Could not extract user ID from filename: " + cvFile.getName());
-                            }
-                        } catch (Exception e) {
-                            System.err.println("  ✗ Error processing CV file: " + cvFile.getName() + " - " + e.getMessage());
-                            e.printStackTrace();
-                        }
+            int priority = ingestionPriorityService.getPriority(jobOfferId);
+            int queued = 0;
+            int deferred = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                String reservation = reservations.get(i);
+                if (reservation == null) {
+                    continue;
+                }
+                CvManifestEntry entry = entries.get(i);
+                if (entry.getStatus() != CvExtractionStatus.QUEUED) {
+                    inFlightApplications.remove(reservation);
+                    continue;
+                }
+                if (deferred == 0) {
+                    try {
+                        submitExtraction(new PendingExtraction(cvFiles.get(i), entry), priority, submitTimeoutMs);
+                        queued++;
+                        continue;
+                    } catch (CvExtractionQueueFullException e) {
+                        // File pleine: les entrées restantes restent QUEUED et seront reprises par le prochain scan ou rattrapage
                     }
-                } else {
-                    System.out.println("No valid CV files found in directory: " + jobDir.getName());
                 }
+                inFlightApplications.remove(reservation);
+                deferred++;
             }
 
-            if (!extractedInfos.isEmpty()) {
-                saveCvInfoToCsv(extractedInfos);
-                System.out.println("=== Successfully processed " + extractedInfos.size() + " CVs at " + LocalDateTime.now() + " ===");
-                printExtractionStats(extractedInfos);
-            } else {
-                System.out.println("=== No new CVs to process at " + LocalDateTime.now() + " ===");
-            }
+            System.out.println("Queued " + queued + "/" + entries.size() + " CVs from bulk upload for user: " + userId + " (Job: " + jobOfferId + ")"
+                    + (deferred > 0 ? ", " + deferred + " deferred to the next scan" : ""));
+            return entries;
+        } catch (RuntimeException e) {
+            reservations.stream().filter(Objects::nonNull).forEach(inFlightApplications::remove);
+            throw e;
+        }
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error in CV processing scheduled task: " + e.getMessage());
-            e.printStackTrace();
+    public Optional<CvManifestEntry> getExtractionStatus(String trackingId) {
+        return cvManifestDao.findByTrackingId(trackingId);
+    }
+
+    private void applyResult(CvManifestEntry entry, CvInfo cvInfo) {
+        Long userId = entry.getUserId();
+        Long jobOfferId = entry.getJobOfferId();
+        cvInfo.setContentHash(entry.getContentHash());
+
+        if (validateExtractedInfo(cvInfo)) {
+            System.out.println("  ✓ Successfully processed CV for user: " + userId + " (Job: " + jobOfferId + ")");
+            entry.setStatus(CvExtractionStatus.INDEXED);
+        } else {
+            System.out.println("  ⚠ CV processed but no meaningful data extracted for user: " + userId + " (Job: " + jobOfferId + ")");
+            entry.setStatus(CvExtractionStatus.EMPTY);
+        }
+    }
+
+    // Un dépassement de budget isole immédiatement le fichier, les autres erreurs après maxExtractionFailures essais
+    private void applyFailure(CvManifestEntry entry, Throwable error) {
+        entry.setFailureCount(entry.getFailureCount() + 1);
+        entry.setLastError(truncateText(String.valueOf(error.getMessage()), 490));
+
+        if (error instanceof CvExtractionAbortedException || entry.getFailureCount() >= maxExtractionFailures) {
+            System.err.println("  ✗ Quarantining CV file: " + entry.getPath() + " after " + entry.getFailureCount() + " failure(s)");
+            entry.setStatus(CvExtractionStatus.QUARANTINED);
+        } else {
+            entry.setStatus(CvExtractionStatus.FAILED);
         }
     }
-    private Long extractJobIdFromDirectoryName(String directoryName) {
+
+    private void saveExtractedInfos(List<CvInfo> extractedInfos) throws IOException {
+        if (!extractedInfos.isEmpty()) {
+            saveCvInfoToCsv(extractedInfos);
+            System.out.println("=== Successfully processed " + extractedInfos.size() + " CVs at " + LocalDateTime.now() + " ===");
+            printExtractionStats(extractedInfos);
+        } else {
+            System.out.println("=== No new CVs to process at " + LocalDateTime.now() + " ===");
+        }
+    }
+
+    Long extractJobIdFromDirectoryName(String directoryName) {
         // Pattern pour extraire l'ID du job depuis le nom du répertoire
         // Supposons que le répertoire soit nommé "job_123" ou "123" ou "job-123"
         Pattern[] patterns = {
@@ -286,7 +828,7 @@ public class CvProcessingService {
         System.out.println("Education extracted: " + eduCount + "/" + cvInfos.size());
     }
 
-    private Long extractUserIdFromFilename(String filename) {
+    Long extractUserIdFromFilename(String filename) {
         // Pattern plus flexible pour extraire l'user ID
         Pattern[] patterns = {
                 Pattern.compile("_user_(\\d+)_"),
@@ -317,14 +859,14 @@ public class CvProcessingService {
         try (FileWriter writer = new FileWriter(extractedInfoFile, true)) {
             // Écrire l'en-tête si le fichier n'existe pas
             if (!fileExists) {
-                writer.append("user_id,job_offer_id,cv_path,name,email,phone,description,skills,experience,education,extracted_at\n");
+                writer.append("user_id,job_offer_id,cv_path,name,email,phone,description,skills,experience,education,extracted_at,content_hash,skill_ids,linkedin_url,github_url\n");
             }
 
             for (CvInfo cvInfo : cvInfos) {
                 String timestamp = cvInfo.getExtractedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
                 // Format CSV avec échappement approprié
-                String csvLine = String.format("%d,%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%s\n",
+                String csvLine = String.format("%d,%d,\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",%s,%s,%s,%s,%s\n",
                         cvInfo.getUserId(),
                         cvInfo.getJobOfferId(), // Added job offer ID
                         escapeCsvValue(cvInfo.getCvPath()),
@@ -335,7 +877,11 @@ public class CvProcessingService {
                         escapeCsvValue(truncateText(cvInfo.getSkills(), 200)),
                         escapeCsvValue(truncateText(cvInfo.getExperience(), 300)),
                         escapeCsvValue(truncateText(cvInfo.getEducation(), 200)),
-                        timestamp
+                        timestamp,
+                        cvInfo.getContentHash() != null ? cvInfo.getContentHash() : "",
+                        String.join("|", cvInfo.getSkillIds()),
+                        cvInfo.getLinkedinUrl() != null ? cvInfo.getLinkedinUrl() : "",
+                        cvInfo.getGithubUrl() != null ? cvInfo.getGithubUrl() : ""
                 );
 
                 writer.append(csvLine);
@@ -344,6 +890,7 @@ public class CvProcessingService {
             writer.flush();
         }
 
+        cvInfoCache.refresh();
         System.out.println("CSV file updated: " + extractedInfoFile);
     }
 
@@ -368,4 +915,18 @@ public class CvProcessingService {
         if (text == null) return "";
         return text.length() > maxLength ? text.substring(0, maxLength) + "..." : text;
     }
-}
\ No newline at end of file
+
+    private static class PendingExtraction {
+        private final File cvFile;
+        private final CvManifestEntry entry;
+        private final String reservation;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+        private volatile CvInfo cvInfo;
+
+        private PendingExtraction(File cvFile, CvManifestEntry entry) {
+            this.cvFile = cvFile;
+            this.entry = entry;
+            this.reservation = reservationKey(entry.getPath(), entry.getUserId(), entry.getJobOfferId());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.dao.entity.CvInfo;
+import com.example.cvfilter.exception.CvExtractionQueueFullException;
+import com.example.cvfilter.util.ContentHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Documents prétraités des CVs pour le TF-IDF, gardés par offre: le texte intégral n'est décompressé qu'une fois
+// par ligne du CSV, les nouvelles lignes ingérées sont ajoutées au premier classement qui les voit.
+// Un classement utilise une seule forme de document pour tous les CVs: texte intégral si chacun en a un, sinon les
+// extraits tronqués du CSV (mélanger les deux fausserait la normalisation par la longueur). Les textes manquants
+// sont reconstitués en arrière-plan pour les classements suivants.
+@Component
+public class CvRankingCorpus {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "le", "de", "et", "à", "un", "il", "être", "en", "avoir", "que", "pour",
+            "dans", "ce", "son", "une", "sur", "avec", "ne", "se", "pas", "tout", "plus",
+            "par", "grand", "the", "be", "to", "of", "and", "a", "in", "that", "have",
+            "i", "it", "for", "not", "on", "with", "he", "as", "you", "do", "at"
+    );
+
+    // Sous les extractions de l'ingestion
+    private static final int BACKFILL_PRIORITY = CvExtractionWorkerPool.DEFAULT_PRIORITY - 1;
+
+    @Value("${cv.ranking.corpus.max-job-offers:16}")
+    private int maxJobOffers;
+
+    private final CvTextStore cvTextStore;
+    private final CvExtractionService cvExtractionService;
+    private final CvExtractionWorkerPool workerPool;
+    private final SkillDictionary skillDictionary;
+
+    // Offre -> documents par ligne du CSV, en ordre d'accès pour l'éviction LRU (protégé par this)
+    private final LinkedHashMap<Long, Map<String, Document>> corpora = new LinkedHashMap<>(16, 0.75f, true);
+
+    public CvRankingCorpus(CvTextStore cvTextStore, CvExtractionService cvExtractionService,
+                           CvExtractionWorkerPool workerPool, SkillDictionary skillDictionary) {
+        this.cvTextStore = cvTextStore;
+        this.cvExtractionService = cvExtractionService;
+        this.workerPool = workerPool;
+        this.skillDictionary = skillDictionary;
+    }
+
+    // Documents prétraités, dans l'ordre des CVs
+    public List<String> documentsFor(Long jobOfferId, List<CvInfo> cvs) {
+        List<Document> documents = documents(jobOfferId, cvs);
+
+        int missing = 0;
+        for (int i = 0; i < cvs.size(); i++) {
+            if (documents.get(i).fullText == null) {
+                missing++;
+                scheduleBackfill(cvs.get(i), documents.get(i));
+            }
+        }
+        if (missing > 0 && cvTextStore.isEnabled()) {
+            System.out.println(missing + "/" + cvs.size() + " CVs of job offer " + jobOfferId
+                    + " have no stored full text, ranking all of them on CSV fields");
+        }
+
+        boolean fullText = missing == 0;
+        return documents.stream().map(document -> fullText ? document.fullText : document.fragments).collect(Collectors.toList());
+    }
+
+    // Compétences d'une ligne du CSV antérieure au dictionnaire, recalculées une seule fois depuis le texte
+    public Set<String> skillIdsOf(Long jobOfferId, CvInfo cv) {
+        return documents(jobOfferId, List.of(cv)).get(0).skillIds;
+    }
+
+    static String preprocess(String text) {
+        if (text == null) return "";
+
+        return Arrays.stream(text.toLowerCase()
+                        .replaceAll("[^a-zA-ZÀ-ÿ0-9\\s]", " ")
+                        .replaceAll("\\s+", " ")
+                        .trim()
+                        .split("\\s+"))
+                .filter(word -> word.length() > 2 && !STOPWORDS.contains(word))
+                .collect(Collectors.joining(" "));
+    }
+
+    private List<Document> documents(Long jobOfferId, List<CvInfo> cvs) {
+        Map<String, Document> corpus;
+        synchronized (this) {
+            corpus = corpora.computeIfAbsent(jobOfferId, id -> new ConcurrentHashMap<>());
+            while (corpora.size() > Math.max(1, maxJobOffers)) {
+                Iterator<Long> eldest = corpora.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        List<Document> documents = new ArrayList<>(cvs.size());
+        for (CvInfo cv : cvs) {
+            documents.add(corpus.computeIfAbsent(keyOf(cv), key -> load(cv)));
+        }
+        return documents;
+    }
+
+    // Une ligne du CSV ne change jamais: une nouvelle extraction ajoute une nouvelle ligne
+    private static String keyOf(CvInfo cv) {
+        return cv.getCvPath() + "#" + cv.getUserId() + "#" + cv.getContentHash() + "#" + cv.getExtractedAt();
+    }
+
+    private Document load(CvInfo cv) {
+        String fragments = fragmentsOf(cv);
+        Optional<String> fullText = cvTextStore.get(cv.getContentHash());
+
+        Document document = new Document(preprocess(fragments));
+        fullText.ifPresent(text -> document.fullText = preprocess(text));
+        if (cv.getSkillIds().isEmpty()) {
+            document.skillIds = new HashSet<>(skillDictionary.findSkillIds(fullText.orElse(fragments)));
+        } else {
+            document.skillIds = new HashSet<>(cv.getSkillIds());
+        }
+        return document;
+    }
+
+    // Texte relu depuis le cache d'extraction (ou le fichier) par un worker: rien n'est écrit dans le CSV
+    private void scheduleBackfill(CvInfo cv, Document document) {
+        if (!cvTextStore.isEnabled() || cv.getCvPath() == null || document.backfillScheduled) {
+            return;
+        }
+        File cvFile = new File(cv.getCvPath());
+        if (!cvFile.isFile()) {
+            return;
+        }
+
+        document.backfillScheduled = true;
+        try {
+            workerPool.submit(() -> {
+                String contentHash = cv.getContentHash() != null ? cv.getContentHash() : ContentHashUtil.sha256(cvFile.toPath());
+                Optional<String> text = cvTextStore.get(contentHash);
+                if (text.isEmpty()) {
+                    cvExtractionService.extractCvInfo(cvFile, cv.getUserId(), cv.getJobOfferId(), contentHash);
+                    text = cvTextStore.get(contentHash);
+                }
+                text.ifPresent(value -> document.fullText = preprocess(value));
+                return null;
+            }, cv.getJobOfferId(), BACKFILL_PRIORITY, 0);
+        } catch (CvExtractionQueueFullException e) {
+            // Réessayé au prochain classement
+            document.backfillScheduled = false;
+        }
+    }
+
+    private static String fragmentsOf(CvInfo cv) {
+        StringBuilder cvText = new StringBuilder();
+
+        appendIfNotNull(cvText, cv.getDescription());
+        appendIfNotNull(cvText, cv.getSkills());
+        appendIfNotNull(cvText, cv.getExperience());
+        appendIfNotNull(cvText, cv.getEducation());
+        appendIfNotNull(cvText, cv.getName());
+
+        return cvText.toString();
+    }
+
+    private static void appendIfNotNull(StringBuilder sb, String text) {
+        if (text != null && !text.trim().isEmpty()) {
+            sb.append(" ").append(text);
+        }
+    }
+
+    private static final class Document {
+        private final String fragments;
+        private volatile String fullText;
+        private volatile Set<String> skillIds;
+        private volatile boolean backfillScheduled;
+
+        private Document(String fragments) {
+            this.fragments = fragments;
+        }
+    }
+}
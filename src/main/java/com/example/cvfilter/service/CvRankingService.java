@@ -11,34 +11,38 @@ import com.example.cvfilter.service.impl.JobOfferServiceInterface;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class CvRankingService implements CvRankingServiceInterface {
 
-    @Value("${cv.extracted.info.file:cv_extracted_info.csv}")
-    private String extractedInfoFile;
-
     private final JobOfferServiceInterface jobOfferService;
+    private final CvInfoCache cvInfoCache;
+    private final CvProcessingService cvProcessingService;
+    private final SkillDictionary skillDictionary;
+    private final CvRankingCorpus cvRankingCorpus;
 
-    private static final Set<String> STOPWORDS = Set.of(
-            "le", "de", "et", "à", "un", "il", "être", "en", "avoir", "que", "pour",
-            "dans", "ce", "son", "une", "sur", "avec", "ne", "se", "pas", "tout", "plus",
-            "par", "grand", "the", "be", "to", "of", "and", "a", "in", "that", "have",
-            "i", "it", "for", "not", "on", "with", "he", "as", "you", "do", "at"
-    );
+    @Value("${cv.ranking.skill-weight:0.3}")
+    private double skillWeight;
 
-    public CvRankingService(JobOfferService jobOfferService) {
+    public CvRankingService(JobOfferService jobOfferService, CvInfoCache cvInfoCache,
+                            CvProcessingService cvProcessingService, SkillDictionary skillDictionary,
+                            CvRankingCorpus cvRankingCorpus) {
         this.jobOfferService = jobOfferService;
+        this.cvInfoCache = cvInfoCache;
+        this.cvProcessingService = cvProcessingService;
+        this.skillDictionary = skillDictionary;
+        this.cvRankingCorpus = cvRankingCorpus;
     }
 
     public List<CvRanking> getTopCvsForJob(Long jobOfferId, int topN) {
+        return getTopCvsForJob(jobOfferId, topN, Collections.emptyList());
+    }
+
+    public List<CvRanking> getTopCvsForJob(Long jobOfferId, int topN, List<String> requiredSkills) {
         JobOffer jobOffer = jobOfferService.getById(jobOfferId)
                 .orElseThrow(() -> new JobOfferNotFoundException("Job offer not found: " + jobOfferId));
 
@@ -47,6 +51,9 @@ public class CvRankingService implements CvRankingServiceInterface {
             throw new InvalidJobOfferException("Job offer description is empty");
         }
 
+        // Les CVs de cette offre encore en attente d'extraction passent en tête de file
+        cvProcessingService.catchUpJobOffer(jobOfferId);
+
         List<CvInfo> cvs;
         try {
             cvs = loadCvsForJobOffer(jobOfferId); // your method to load CVs
@@ -54,11 +61,19 @@ public class CvRankingService implements CvRankingServiceInterface {
             throw new CvUploadException("Failed to load CVs for job offer " + jobOfferId, e);
         }
 
+        if (requiredSkills != null && !requiredSkills.isEmpty()) {
+            Set<String> required = normalizeSkills(requiredSkills);
+            cvs = cvs.stream()
+                    .filter(cv -> skillIdsOf(jobOfferId, cv).containsAll(required))
+                    .collect(Collectors.toList());
+            System.out.println(cvs.size() + " CVs match required skills " + required);
+        }
+
         if (cvs.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return rankCvs(jobDescription, cvs, Math.min(topN, cvs.size())); // your ranking method
+        return rankCvs(jobOfferId, jobDescription, cvs, Math.min(topN, cvs.size())); // your ranking method
     }
 
     public List<CvRanking> getBestCvsForJob(Long jobOfferId) {
@@ -66,100 +81,19 @@ public class CvRankingService implements CvRankingServiceInterface {
     }
 
     private List<CvInfo> loadCvsForJobOffer(Long jobOfferId) throws IOException {
-        List<CvInfo> cvs = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(extractedInfoFile))) {
-            String line;
-            boolean isFirstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-
-                CvInfo cvInfo = parseCsvLine(line);
-                if (cvInfo != null && jobOfferId.equals(cvInfo.getJobOfferId())) {
-                    cvs.add(cvInfo);
-                }
-            }
-        }
+        List<CvInfo> cvs = cvInfoCache.getCvsForJobOffer(jobOfferId);
 
         System.out.println("Loaded " + cvs.size() + " CVs for job offer " + jobOfferId);
         return cvs;
     }
 
-    private CvInfo parseCsvLine(String line) {
-        try {
-            List<String> fields = parseCsvFields(line);
-
-            if (fields.size() < 11) {
-                return null;
-            }
-
-            Long userId = Long.parseLong(fields.get(0));
-            Long jobOfferId = Long.parseLong(fields.get(1));
-            String cvPath = fields.get(2);
-
-            CvInfo cvInfo = new CvInfo(userId, jobOfferId, cvPath);
-            cvInfo.setName(fields.get(3));
-            cvInfo.setEmail(fields.get(4));
-            cvInfo.setPhone(fields.get(5));
-            cvInfo.setDescription(fields.get(6));
-            cvInfo.setSkills(fields.get(7));
-            cvInfo.setExperience(fields.get(8));
-            cvInfo.setEducation(fields.get(9));
-
-            String timestamp = fields.get(10);
-            cvInfo.setExtractedAt(LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-            return cvInfo;
-        } catch (Exception e) {
-            System.err.println("Error parsing CSV line: " + line + " - " + e.getMessage());
-            return null;
-        }
-    }
-
-    private List<String> parseCsvFields(String line) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder currentField = new StringBuilder();
-        boolean inQuotes = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"' && !inQuotes) {
-                inQuotes = true;
-            } else if (c == '"' && inQuotes) {
-                if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // Escaped quote
-                    currentField.append('"');
-                    i++; // Skip next quote
-                } else {
-                    inQuotes = false;
-                }
-            } else if (c == ',' && !inQuotes) {
-                fields.add(currentField.toString());
-                currentField = new StringBuilder();
-            } else {
-                currentField.append(c);
-            }
-        }
-
-        fields.add(currentField.toString());
-        return fields;
-    }
-
-    private List<CvRanking> rankCvs(String jobDescription, List<CvInfo> cvs, int topN) {
+    private List<CvRanking> rankCvs(Long jobOfferId, String jobDescription, List<CvInfo> cvs, int topN) {
         List<String> documents = new ArrayList<>();
-        documents.add(preprocessText(jobDescription)); // Job description at index 0
-
-        for (CvInfo cv : cvs) {
-            String cvText = buildCvText(cv);
-            documents.add(preprocessText(cvText));
-        }
+        documents.add(CvRankingCorpus.preprocess(jobDescription)); // Job description at index 0
+        documents.addAll(cvRankingCorpus.documentsFor(jobOfferId, cvs));
 
         Map<String, Map<Integer, Double>> tfidfVectors = calculateTfIdf(documents);
+        List<String> jobSkills = skillDictionary.findSkillIds(jobDescription);
 
         List<CvRanking> rankings = new ArrayList<>();
 
@@ -167,6 +101,13 @@ public class CvRankingService implements CvRankingServiceInterface {
             CvInfo cv = cvs.get(i);
             double similarity = calculateCosineSimilarity(tfidfVectors, 0, i + 1); // 0 = job desc, i+1 = CV
 
+            // Part des compétences de l'offre présentes dans le CV
+            if (!jobSkills.isEmpty()) {
+                Set<String> cvSkills = skillIdsOf(jobOfferId, cv);
+                long covered = jobSkills.stream().filter(cvSkills::contains).count();
+                similarity = (1 - skillWeight) * similarity + skillWeight * covered / jobSkills.size();
+            }
+
             CvRanking ranking = new CvRanking();
             ranking.setCvInfo(cv);
             ranking.setSimilarityScore(similarity);
@@ -181,37 +122,28 @@ public class CvRankingService implements CvRankingServiceInterface {
                 .collect(Collectors.toList());
     }
 
-    private String buildCvText(CvInfo cv) {
-        StringBuilder cvText = new StringBuilder();
-
-        appendIfNotNull(cvText, cv.getDescription());
-        appendIfNotNull(cvText, cv.getSkills());
-        appendIfNotNull(cvText, cv.getExperience());
-        appendIfNotNull(cvText, cv.getEducation());
-        appendIfNotNull(cvText, cv.getName());
-
-        return cvText.toString();
-    }
-
-    private void appendIfNotNull(StringBuilder sb, String text) {
-        if (text != null && !text.trim().isEmpty()) {
-            sb.append(" ").append(text);
+    // Les lignes CSV antérieures au dictionnaire n'ont pas d'identifiants: on les recalcule depuis le texte
+    private Set<String> skillIdsOf(Long jobOfferId, CvInfo cv) {
+        if (!cv.getSkillIds().isEmpty()) {
+            return new HashSet<>(cv.getSkillIds());
         }
+        return cvRankingCorpus.skillIdsOf(jobOfferId, cv);
     }
 
-    private String preprocessText(String text) {
-        if (text == null) return "";
-
-        return Arrays.stream(text.toLowerCase()
-                        .replaceAll("[^a-zA-ZÀ-ÿ0-9\\s]", " ")
-                        .replaceAll("\\s+", " ")
-                        .trim()
-                        .split("\\s+"))
-                .filter(word -> word.length() > 2 && !STOPWORDS.contains(word))
-                .collect(Collectors.joining(" "));
+    private Set<String> normalizeSkills(List<String> skills) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String skill : skills) {
+            String value = skill.trim().toLowerCase();
+            if (skillDictionary.contains(value)) {
+                normalized.add(value);
+            } else {
+                List<String> ids = skillDictionary.findSkillIds(value);
+                normalized.addAll(ids.isEmpty() ? List.of(value) : ids);
+            }
+        }
+        return normalized;
     }
 
-
     private Map<String, Map<Integer, Double>> calculateTfIdf(List<String> documents) {
         // Calculate term frequencies
         List<Map<String, Integer>> termFreqs = new ArrayList<>();
@@ -0,0 +1,332 @@
+package com.example.cvfilter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Texte intégral des CVs, compressé bloc par bloc (un bloc par CV) et adressé par le hash du contenu.
+// Les blocs sont compressés avec un dictionnaire Deflate appris sur les premiers CVs stockés.
+@Component
+public class CvTextStore {
+
+    private static final String DATA_FILE = "texts.dat";
+    private static final String DICTIONARY_FILE = "dictionary.bin";
+
+    // Taille maximale d'un dictionnaire Deflate (fenêtre de 32 Ko)
+    private static final int MAX_DICTIONARY_BYTES = 32 * 1024;
+    private static final int MAX_SAMPLE_CHARS = 20_000;
+
+    @Value("${cv.text-store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cv.text-store.dir:cv_text_store}")
+    private String storeDir;
+
+    @Value("${cv.text-store.train-after:50}")
+    private int trainAfter;
+
+    // Hash du contenu -> position du bloc dans le fichier de données
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    // Identifiant Adler-32 (celui que zlib écrit dans chaque bloc) -> dictionnaire
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+    private FileChannel channel;
+    private volatile byte[] currentDictionary;
+    private boolean training;
+    private long rawBytes;
+    private long storedBytes;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            System.out.println("CV text store disabled");
+            return;
+        }
+
+        try {
+            Path directory = Paths.get(storeDir);
+            Files.createDirectories(directory);
+            loadDictionaries(directory);
+            channel = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            rebuildIndex();
+            System.out.println("CV text store loaded " + index.size() + " texts from " + storeDir +
+                    " (" + rawBytes + " bytes raw, " + storedBytes + " bytes stored" +
+                    (currentDictionary != null ? ", dictionary " + currentDictionary.length + " bytes" : "") + ")");
+        } catch (IOException e) {
+            System.err.println("Could not open CV text store, disabling it: " + e.getMessage());
+            enabled = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing CV text store: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean contains(String contentHash) {
+        return enabled && contentHash != null && index.containsKey(contentHash);
+    }
+
+    public void put(String contentHash, String text) {
+        if (!enabled || contentHash == null || text == null || index.containsKey(contentHash)) {
+            return;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(raw, currentDictionary);
+        byte[] key = contentHash.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer record = ByteBuffer.allocate(12 + key.length + compressed.length);
+        record.putInt(key.length).put(key).putInt(raw.length).putInt(compressed.length).put(compressed);
+        record.flip();
+
+        boolean train;
+        synchronized (this) {
+            if (index.containsKey(contentHash)) {
+                return;
+            }
+            try {
+                long offset = channel.size();
+                while (record.hasRemaining()) {
+                    channel.write(record, offset + record.position());
+                }
+                index.put(contentHash, offset);
+                rawBytes += raw.length;
+                storedBytes += record.limit();
+            } catch (IOException e) {
+                System.err.println("Could not store CV text " + contentHash + ": " + e.getMessage());
+                return;
+            }
+            train = currentDictionary == null && !training && index.size() >= trainAfter;
+            training |= train;
+        }
+
+        if (train) {
+            trainDictionary();
+        }
+    }
+
+    public Optional<String> get(String contentHash) {
+        if (!enabled || contentHash == null) {
+            return Optional.empty();
+        }
+
+        Long offset = index.get(contentHash);
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        try {
+            ByteBuffer header = readFully(offset, 4);
+            int keyLength = header.getInt();
+            ByteBuffer sizes = readFully(offset + 4 + keyLength, 8);
+            int rawLength = sizes.getInt();
+            int compressedLength = sizes.getInt();
+            ByteBuffer compressed = readFully(offset + 12 + keyLength, compressedLength);
+            return Optional.of(new String(decompress(compressed.array(), rawLength), StandardCharsets.UTF_8));
+        } catch (IOException | DataFormatException e) {
+            System.err.println("Could not read CV text " + contentHash + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] compress(byte[] raw, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(byte[] compressed, int rawLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength) {
+                int count = inflater.inflate(raw, read, rawLength - read);
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        byte[] dictionary = dictionaries.get(inflater.getAdler());
+                        if (dictionary == null) {
+                            throw new DataFormatException("Unknown compression dictionary " + Integer.toHexString(inflater.getAdler()));
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else {
+                        throw new DataFormatException("Truncated block (" + read + "/" + rawLength + " bytes)");
+                    }
+                }
+                read += count;
+            }
+            return raw;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Apprend un dictionnaire sur les textes déjà stockés: les blocs suivants seront compressés avec
+    private void trainDictionary() {
+        List<String> samples = new ArrayList<>();
+        for (String contentHash : new ArrayList<>(index.keySet())) {
+            get(contentHash).ifPresent(text -> samples.add(text.length() > MAX_SAMPLE_CHARS ? text.substring(0, MAX_SAMPLE_CHARS) : text));
+        }
+
+        byte[] dictionary = buildDictionary(samples);
+        if (dictionary.length == 0) {
+            return;
+        }
+
+        try {
+            Path path = Paths.get(storeDir, DICTIONARY_FILE);
+            Path temp = Files.createTempFile(Paths.get(storeDir), "dictionary", ".tmp");
+            Files.write(temp, dictionary);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not save CV text dictionary: " + e.getMessage());
+            return;
+        }
+
+        dictionaries.put(adler(dictionary), dictionary);
+        currentDictionary = dictionary;
+        System.out.println("CV text store trained a " + dictionary.length + " bytes dictionary on " + samples.size() + " texts");
+    }
+
+    // Séquences de 1 à 3 mots présentes dans plusieurs CVs, les plus rentables en fin de dictionnaire
+    // (Deflate encode plus court les références proches)
+    static byte[] buildDictionary(List<String> samples) {
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String sample : samples) {
+            String[] words = sample.split("\\s+");
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < words.length; i++) {
+                StringBuilder phrase = new StringBuilder();
+                for (int n = 0; n < 3 && i + n < words.length; n++) {
+                    if (n > 0) {
+                        phrase.append(' ');
+                    }
+                    phrase.append(words[i + n]);
+                    if (phrase.length() >= 4 && seen.add(phrase.toString())) {
+                        documentFrequency.merge(phrase.toString(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> candidates = documentFrequency.entrySet().stream()
+                .filter(entry -> entry.getValue() >= 2)
+                .sorted((a, b) -> Long.compare((long) b.getValue() * b.getKey().length(), (long) a.getValue() * a.getKey().length()))
+                .collect(Collectors.toList());
+
+        List<byte[]> selected = new ArrayList<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            byte[] bytes = (candidate.getKey() + " ").getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > MAX_DICTIONARY_BYTES) {
+                continue;
+            }
+            selected.add(bytes);
+            size += bytes.length;
+        }
+
+        Collections.reverse(selected);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        selected.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private void loadDictionaries(Path directory) throws IOException {
+        Path path = directory.resolve(DICTIONARY_FILE);
+        if (Files.exists(path)) {
+            byte[] dictionary = Files.readAllBytes(path);
+            dictionaries.put(adler(dictionary), dictionary);
+            currentDictionary = dictionary;
+        }
+    }
+
+    // Relit les en-têtes de blocs; un bloc final incomplet (arrêt brutal) est tronqué
+    private void rebuildIndex() throws IOException {
+        long size = channel.size();
+        long offset = 0;
+
+        while (offset + 12 <= size) {
+            int keyLength = readFully(offset, 4).getInt();
+            if (keyLength <= 0 || keyLength > 256 || offset + 12 + keyLength > size) {
+                break;
+            }
+            String key = new String(readFully(offset + 4, keyLength).array(), StandardCharsets.UTF_8);
+            ByteBuffer sizes = readFully(offset + 4 + keyLength, 8);
+            int rawLength = sizes.getInt();
+            int compressedLength = sizes.getInt();
+            long next = offset + 12 + keyLength + compressedLength;
+            if (compressedLength < 0 || next > size) {
+                break;
+            }
+
+            index.put(key, offset);
+            rawBytes += rawLength;
+            storedBytes += next - offset;
+            offset = next;
+        }
+
+        if (offset < size) {
+            System.err.println("CV text store has a truncated trailing block, dropping " + (size - offset) + " bytes");
+            channel.truncate(offset);
+        }
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of CV text store at " + position);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int adler(byte[] dictionary) {
+        Adler32 adler = new Adler32();
+        adler.update(dictionary);
+        return (int) adler.getValue();
+    }
+}
@@ -2,26 +2,58 @@ package com.example.cvfilter.service;
 
 import com.example.cvfilter.dao.UserDao;
 import com.example.cvfilter.dao.JobOfferDao;
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
 import com.example.cvfilter.dao.entity.User;
+import com.example.cvfilter.dto.BulkCvUploadResponse;
+import com.example.cvfilter.dto.BulkCvUploadResponse.FileResult;
+import com.example.cvfilter.dto.ChunkedUploadInitRequest;
+import com.example.cvfilter.dto.ChunkedUploadStatusResponse;
+import com.example.cvfilter.dto.CvExtractionStatusResponse;
+import com.example.cvfilter.dto.CvUploadResponse;
+import com.example.cvfilter.exception.CvFileTooLargeException;
+import com.example.cvfilter.exception.CvTrackingNotFoundException;
 import com.example.cvfilter.exception.CvUploadException;
+import com.example.cvfilter.exception.InvalidUploadChunkException;
 import com.example.cvfilter.exception.JobOfferNotFoundException;
+import com.example.cvfilter.exception.UnsupportedCvFileTypeException;
 import com.example.cvfilter.exception.UserNotFoundException;
+import com.example.cvfilter.service.ChunkedUploadStore.CompletedUpload;
+import com.example.cvfilter.service.ChunkedUploadStore.Session;
 import com.example.cvfilter.service.impl.CvUploadServiceInterface;
+import com.example.cvfilter.util.MultipartStreamReader;
+import com.example.cvfilter.util.MultipartStreamReader.Part;
+import com.example.cvfilter.util.StreamingUploadWriter;
+import com.example.cvfilter.util.StreamingUploadWriter.StoredUpload;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.*;
-        import java.time.LocalDateTime;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
 
 @Service
 public class CvUploadService implements CvUploadServiceInterface {
 
     private final JobOfferDao jobOfferDao;
     private final UserDao userDao;
+    private final CvProcessingService cvProcessingService;
+    private final ChunkedUploadStore chunkedUploadStore;
+    private final CvBlobStore cvBlobStore;
+    private final UploadAdmissionControl uploadAdmissionControl;
 
     @Value("${cv.storage.path:data}")
     private String storagePath;
@@ -29,9 +61,30 @@ public class CvUploadService implements CvUploadServiceInterface {
     @Value("${cv.log.file:cv_uploads.csv}")
     private String csvLogFile;
 
-    public CvUploadService(JobOfferDao jobOfferDao, UserDao userDao) {
+    @Value("${cv.upload.max-bytes:52428800}")
+    private long maxUploadBytes;
+
+    @Value("${cv.upload.bulk.max-bytes:209715200}")
+    private long maxBulkBytes;
+
+    @Value("${cv.upload.bulk.max-entries:500}")
+    private int maxBulkEntries;
+
+    @Value("${cv.upload.bulk.max-uncompressed-bytes:1073741824}")
+    private long maxBulkUncompressedBytes;
+
+    @Value("${cv.upload.bulk.max-compression-ratio:100}")
+    private int maxBulkCompressionRatio;
+
+    public CvUploadService(JobOfferDao jobOfferDao, UserDao userDao, CvProcessingService cvProcessingService,
+                           ChunkedUploadStore chunkedUploadStore, CvBlobStore cvBlobStore,
+                           UploadAdmissionControl uploadAdmissionControl) {
         this.jobOfferDao = jobOfferDao;
         this.userDao = userDao;
+        this.cvProcessingService = cvProcessingService;
+        this.chunkedUploadStore = chunkedUploadStore;
+        this.cvBlobStore = cvBlobStore;
+        this.uploadAdmissionControl = uploadAdmissionControl;
     }
 
     @Override
@@ -49,8 +102,56 @@ public class CvUploadService implements CvUploadServiceInterface {
         return filePath.toString();
     }
 
+    // Corps multipart lu directement (résolution multipart de Spring désactivée): la partie "file"
+    // est écrite dans le fichier final en un seul passage, comme pour l'upload en corps brut
+    @Override
+    public CvUploadResponse uploadCv(Long jobId, InputStream body, String contentType, long contentLength, String username) {
+        StreamingUploadWriter.checkDeclaredSize(contentLength, maxUploadBytes + MultipartStreamReader.MAX_OVERHEAD_BYTES);
+        try {
+            Part part = MultipartStreamReader.findPart(body, contentType, "file");
+            return storeAndEnqueue(jobId, part.getInputStream(), part.getFilename(), username);
+        } catch (IOException e) {
+            throw new CvUploadException("Error while uploading CV", e);
+        }
+    }
+
+    // Corps de requête brut: écrit directement dans le fichier final, sans passer par le découpage multipart
+    @Override
+    public CvUploadResponse uploadCvStream(Long jobId, InputStream body, long contentLength, String filename, String username) {
+        StreamingUploadWriter.checkDeclaredSize(contentLength, maxUploadBytes);
+        try {
+            return storeAndEnqueue(jobId, body, filename, username);
+        } catch (IOException e) {
+            throw new CvUploadException("Error while uploading CV", e);
+        }
+    }
+
+    private CvUploadResponse storeAndEnqueue(Long jobId, InputStream in, String originalFilename, String username) throws IOException {
+        if (!jobOfferDao.existsById(jobId)) {
+            throw new JobOfferNotFoundException("Job offer not found with ID: " + jobId);
+        }
+
+        User user = userDao.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+
+        // L'extension finale est celle du type détecté dans le contenu
+        String uniqueBaseName = baseFilename(originalFilename) + "_user_" + user.getId() + "_" + System.currentTimeMillis();
+        StoredUpload upload = StreamingUploadWriter.write(in, uploadDirectory(jobId), uploadName(uniqueBaseName), maxUploadBytes);
+        Path filePath = place(upload.getPath(), upload.getContentHash(), upload.getType().getExtension());
+
+        logCvUpload(user.getId(), filePath.toString());
+
+        CvManifestEntry entry = cvProcessingService.enqueue(filePath.toFile(), user.getId(), jobId, upload.getContentHash());
+
+        return new CvUploadResponse(filePath.toString(), entry.getTrackingId(), entry.getStatus());
+    }
+
+    // Archive ZIP de CVs: décompressée au fil de l'eau, chaque fichier est écrit directement dans le dossier de l'offre.
+    // Les erreurs propres à un fichier sont rapportées dans le résumé; un dépassement des limites de l'archive annule tout.
     @Override
-    public String uploadCv(Long jobId, MultipartFile file, String username) {
+    public BulkCvUploadResponse uploadCvZip(Long jobId, InputStream body, long contentLength, String username) {
+        StreamingUploadWriter.checkDeclaredSize(contentLength, maxBulkBytes);
+
         if (!jobOfferDao.existsById(jobId)) {
             throw new JobOfferNotFoundException("Job offer not found with ID: " + jobId);
         }
@@ -58,34 +159,249 @@ public class CvUploadService implements CvUploadServiceInterface {
         User user = userDao.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
 
+        List<FileResult> results = new ArrayList<>();
+        List<StoredUpload> stored = new ArrayList<>();
+        List<String> storedNames = new ArrayList<>();
+
+        // Le jeton pris par UploadAdmissionFilter couvre le premier fichier, chaque fichier suivant en prend un
         try {
-            Path jobDir = Paths.get(storagePath, String.valueOf(jobId));
-            Files.createDirectories(jobDir);
+            Path uploadDir = uploadDirectory(jobId);
 
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : "";
-            String baseFilename = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(0, originalFilename.lastIndexOf("."))
-                    : originalFilename;
+            ZipLimits limits = new ZipLimits(body);
+            long timestamp = System.currentTimeMillis();
+            int entries = 0;
 
-            String uniqueFilename = baseFilename + "_user_" + user.getId() + "_" +
-                    System.currentTimeMillis() + extension;
+            try (ZipInputStream zip = new ZipInputStream(limits)) {
+                ZipEntry zipEntry;
+                while ((zipEntry = zip.getNextEntry()) != null) {
+                    String entryName = zipEntry.getName();
+                    if (zipEntry.isDirectory() || isIgnoredZipEntry(entryName)) {
+                        continue;
+                    }
+                    if (++entries > maxBulkEntries) {
+                        throw new CvFileTooLargeException("ZIP archive has more than " + maxBulkEntries + " files");
+                    }
 
-            Path filePath = jobDir.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+                    String fileName = Paths.get(entryName.replace('\\', '/')).getFileName().toString();
+                    if (entries > 1 && !uploadAdmissionControl.tryConsume(username)) {
+                        results.add(FileResult.rejected(fileName, "Upload rate limit reached"));
+                        limits.entry(zip).transferTo(OutputStream.nullOutputStream());
+                        continue;
+                    }
+                    String uniqueBaseName = baseFilename(fileName) + "_user_" + user.getId() + "_" + (timestamp + entries);
+                    try {
+                        stored.add(StreamingUploadWriter.write(limits.entry(zip), uploadDir, uploadName(uniqueBaseName), maxUploadBytes));
+                        storedNames.add(fileName);
+                    } catch (CvFileTooLargeException | UnsupportedCvFileTypeException e) {
+                        if (limits.exceeded) {
+                            throw e;
+                        }
+                        results.add(FileResult.rejected(fileName, e.getMessage()));
+                        // Le reste de l'entrée est lu à vide mais toujours compté dans les limites de l'archive
+                        limits.entry(zip).transferTo(OutputStream.nullOutputStream());
+                    }
+                }
+            } catch (ZipException e) {
+                throw new UnsupportedCvFileTypeException("Invalid ZIP archive: " + e.getMessage());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Archive refusée: les fichiers déjà écrits (pas encore rangés) ne doivent pas être ramassés par un scan
+            for (StoredUpload upload : stored) {
+                try {
+                    Files.deleteIfExists(upload.getPath());
+                } catch (IOException deleteError) {
+                    System.err.println("Could not delete " + upload.getPath() + ": " + deleteError.getMessage());
+                }
+            }
+            if (e instanceof IOException) {
+                throw new CvUploadException("Error while uploading CV archive", e);
+            }
+            throw (RuntimeException) e;
+        }
 
-            logCvUpload(user.getId(), filePath.toString());
+        if (stored.isEmpty() && results.isEmpty()) {
+            throw new UnsupportedCvFileTypeException("ZIP archive contains no CV files");
+        }
 
-            return filePath.toString();
+        // Archive acceptée: les fichiers sont rangés; deux copies identiques dans l'archive donnent le même blob
+        LinkedHashMap<File, String> filesWithHash = new LinkedHashMap<>();
+        List<String> placedNames = new ArrayList<>();
+        try {
+            for (int i = 0; i < stored.size(); i++) {
+                StoredUpload upload = stored.get(i);
+                Path filePath = place(upload.getPath(), upload.getContentHash(), upload.getType().getExtension());
+                if (filesWithHash.putIfAbsent(filePath.toFile(), upload.getContentHash()) == null) {
+                    placedNames.add(storedNames.get(i));
+                } else {
+                    results.add(new FileResult(storedNames.get(i), filePath.toString(), null, CvExtractionStatus.DUPLICATE, null));
+                }
+            }
+            logCvUploads(user.getId(), filesWithHash.keySet().stream().map(File::getPath).toList());
         } catch (IOException e) {
-            throw new CvUploadException("Error while uploading CV", e);
+            throw new CvUploadException("Error while storing CV uploads", e);
+        }
+
+        List<CvManifestEntry> entries = filesWithHash.isEmpty() ? List.of()
+                : cvProcessingService.enqueueAll(filesWithHash, user.getId(), jobId);
+        for (int i = 0; i < entries.size(); i++) {
+            CvManifestEntry entry = entries.get(i);
+            results.add(new FileResult(placedNames.get(i), entry.getPath(), entry.getTrackingId(), entry.getStatus(), null));
         }
+
+        System.out.println("Bulk upload for job " + jobId + ": " + stored.size() + " files stored, " + (results.size() - stored.size()) + " rejected");
+        return new BulkCvUploadResponse(results);
     }
 
+    // Upload en plusieurs morceaux: l'offre et l'utilisateur sont vérifiés une fois, à l'ouverture
+    @Override
+    public ChunkedUploadStatusResponse initChunkedUpload(Long jobId, ChunkedUploadInitRequest request, String username) {
+        if (request.getFilename() == null || request.getSize() == null || request.getSize() <= 0
+                || request.getSha256() == null || !request.getSha256().matches("[0-9a-fA-F]{64}")) {
+            throw new InvalidUploadChunkException("filename, a positive size and a SHA-256 checksum are required");
+        }
+        StreamingUploadWriter.checkDeclaredSize(request.getSize(), maxUploadBytes);
+
+        if (!jobOfferDao.existsById(jobId)) {
+            throw new JobOfferNotFoundException("Job offer not found with ID: " + jobId);
+        }
+
+        User user = userDao.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+
+        try {
+            Session session = chunkedUploadStore.create(username, user.getId(), jobId,
+                    request.getFilename(), request.getSize(), request.getSha256());
+            return toStatus(session);
+        } catch (IOException e) {
+            throw new CvUploadException("Error while starting chunked upload", e);
+        }
+    }
+
+    @Override
+    public ChunkedUploadStatusResponse uploadChunk(String uploadId, long offset, InputStream body, long contentLength, String username) {
+        try {
+            return toStatus(chunkedUploadStore.writeChunk(uploadId, username, offset, body, contentLength));
+        } catch (IOException e) {
+            throw new CvUploadException("Error while writing chunk of upload " + uploadId, e);
+        }
+    }
+
+    @Override
+    public ChunkedUploadStatusResponse getChunkedUploadStatus(String uploadId, String username) {
+        return toStatus(chunkedUploadStore.get(uploadId, username));
+    }
+
+    // Fichier complet et vérifié: déplacé dans le dossier de l'offre puis mis en file d'extraction
+    @Override
+    public CvUploadResponse completeChunkedUpload(String uploadId, String username) {
+        try {
+            CompletedUpload upload = chunkedUploadStore.complete(uploadId, username);
+            Session session = upload.getSession();
+
+            Path filePath;
+            if (cvBlobStore.isEnabled()) {
+                filePath = cvBlobStore.moveIn(upload.getPath(), upload.getContentHash(), upload.getType().getExtension());
+            } else {
+                Path jobDir = uploadDirectory(session.getJobOfferId());
+                filePath = jobDir.resolve(baseFilename(session.getFilename()) + "_user_" + session.getUserId() + "_" +
+                        System.currentTimeMillis() + upload.getType().getExtension());
+                try {
+                    Files.move(upload.getPath(), filePath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    // Dossier des uploads sur un autre volume: copie via un fichier ignoré par les scans
+                    Path part = jobDir.resolve(filePath.getFileName() + ".part");
+                    Files.move(upload.getPath(), part);
+                    Files.move(part, filePath, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            chunkedUploadStore.delete(uploadId);
+
+            logCvUpload(session.getUserId(), filePath.toString());
+
+            CvManifestEntry entry = cvProcessingService.enqueue(filePath.toFile(), session.getUserId(),
+                    session.getJobOfferId(), upload.getContentHash());
+            return new CvUploadResponse(filePath.toString(), entry.getTrackingId(), entry.getStatus());
+        } catch (IOException e) {
+            throw new CvUploadException("Error while completing upload " + uploadId, e);
+        }
+    }
+
+    @Override
+    public void cancelChunkedUpload(String uploadId, String username) {
+        chunkedUploadStore.get(uploadId, username);
+        try {
+            chunkedUploadStore.delete(uploadId);
+        } catch (IOException e) {
+            throw new CvUploadException("Error while cancelling upload " + uploadId, e);
+        }
+    }
+
+    private ChunkedUploadStatusResponse toStatus(Session session) {
+        return new ChunkedUploadStatusResponse(session.getUploadId(), session.getJobOfferId(), session.getSize(),
+                session.receivedBytes(), chunkedUploadStore.getMaxChunkBytes(), session.receivedRanges(),
+                chunkedUploadStore.expiresAt(session));
+    }
+
+    // Avec le stockage par contenu, les uploads sont écrits dans sa zone d'attente puis rangés par hash
+    private Path uploadDirectory(Long jobId) throws IOException {
+        if (cvBlobStore.isEnabled()) {
+            return cvBlobStore.stagingDirectory();
+        }
+        Path jobDir = Paths.get(storagePath, String.valueOf(jobId));
+        Files.createDirectories(jobDir);
+        return jobDir;
+    }
+
+    private String uploadName(String uniqueBaseName) {
+        return cvBlobStore.isEnabled() ? cvBlobStore.newStagingName() : uniqueBaseName;
+    }
+
+    private Path place(Path written, String contentHash, String extension) throws IOException {
+        return cvBlobStore.isEnabled() ? cvBlobStore.moveIn(written, contentHash, extension) : written;
+    }
+
+    // Métadonnées ajoutées par macOS et fichiers cachés
+    private static boolean isIgnoredZipEntry(String entryName) {
+        String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+        return entryName.startsWith("__MACOSX/") || fileName.startsWith(".") || fileName.isEmpty();
+    }
+
+    // Nom sans chemin ni extension, limité à des caractères sûrs
+    private static String baseFilename(String originalFilename) {
+        if (originalFilename == null || originalFilename.isBlank()) {
+            return "cv";
+        }
+        String name = Paths.get(originalFilename.replace('\\', '/')).getFileName().toString();
+        if (name.contains(".")) {
+            name = name.substring(0, name.lastIndexOf('.'));
+        }
+        name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return name.isEmpty() ? "cv" : name;
+    }
+
+    // Un utilisateur ne voit que ses propres uploads: un identifiant d'un autre utilisateur est traité comme inconnu
+    @Override
+    public CvExtractionStatusResponse getExtractionStatus(String trackingId, String username) {
+        User user = userDao.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
+
+        return cvProcessingService.getExtractionStatus(trackingId)
+                .filter(entry -> user.getId().equals(entry.getUserId()))
+                .map(entry -> new CvExtractionStatusResponse(entry.getTrackingId(), entry.getJobOfferId(),
+                        entry.getStatus(), entry.getLastError(), entry.getUpdatedAt()))
+                .orElseThrow(() -> new CvTrackingNotFoundException("No CV upload found with tracking ID: " + trackingId));
+    }
 
     private void logCvUpload(Long userId, String cvPath) throws IOException {
+        logCvUploads(userId, List.of(cvPath));
+    }
+
+    // Une seule ouverture du journal pour tout un lot
+    private void logCvUploads(Long userId, List<String> cvPaths) throws IOException {
+        if (cvPaths.isEmpty()) {
+            return;
+        }
+
         Path csvPath = Paths.get(csvLogFile);
         boolean fileExists = Files.exists(csvPath);
 
@@ -95,9 +411,91 @@ public class CvUploadService implements CvUploadServiceInterface {
             }
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            String escapedPath = cvPath.replace("\"", "\"\"");
+            StringBuilder lines = new StringBuilder();
+            for (String cvPath : cvPaths) {
+                String escapedPath = cvPath.replace("\"", "\"\"");
+                lines.append(String.format("%d,\"%s\",%s\n", userId, escapedPath, timestamp));
+            }
+            writer.append(lines);
+        }
+    }
+
+    // Compte les octets compressés lus et les octets décompressés rendus: protège contre les bombes ZIP
+    private final class ZipLimits extends FilterInputStream {
+        private long compressedBytes;
+        private long uncompressedBytes;
+        private boolean exceeded;
+
+        private ZipLimits(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                countCompressed(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                countCompressed(read);
+            }
+            return read;
+        }
+
+        private void countCompressed(int count) {
+            compressedBytes += count;
+            if (compressedBytes > maxBulkBytes) {
+                exceed("ZIP archive too large: more than " + maxBulkBytes + " bytes");
+            }
+        }
+
+        private void countUncompressed(int count) {
+            uncompressedBytes += count;
+            if (uncompressedBytes > maxBulkUncompressedBytes) {
+                exceed("ZIP archive expands to more than " + maxBulkUncompressedBytes + " bytes");
+            }
+            // Le ratio n'est vérifié qu'au-delà d'1 Mo: les petits fichiers texte se compressent très bien
+            if (uncompressedBytes > 1024 * 1024 && uncompressedBytes > (long) maxBulkCompressionRatio * compressedBytes) {
+                exceed("ZIP archive compression ratio exceeds " + maxBulkCompressionRatio + ":1");
+            }
+        }
+
+        private void exceed(String message) {
+            exceeded = true;
+            throw new CvFileTooLargeException(message);
+        }
+
+        // Flux de l'entrée courante: fermer le fichier écrit ne ferme pas l'archive
+        private InputStream entry(ZipInputStream zip) {
+            return new FilterInputStream(zip) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        countUncompressed(1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        countUncompressed(read);
+                    }
+                    return read;
+                }
 
-            writer.append(String.format("%d,\"%s\",%s\n", userId, escapedPath, timestamp));
+                @Override
+                public void close() {
+                }
+            };
         }
     }
 }
@@ -0,0 +1,203 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.dao.entity.CvInfo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Cache disque des extractions, adressé par le SHA-256 du fichier: un même CV n'est parsé qu'une fois,
+// quel que soit le nombre d'offres auxquelles il est envoyé
+@Component
+public class ExtractionResultCache {
+
+    @Value("${cv.extraction.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cv.extraction.cache.dir:cv_extraction_cache}")
+    private String cacheDir;
+
+    @Value("${cv.extraction.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    private final AtomicLong currentBytes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            System.out.println("CV extraction cache disabled");
+            return;
+        }
+
+        try {
+            Files.createDirectories(Paths.get(cacheDir));
+            currentBytes.set(listEntries().stream().mapToLong(CacheFile::size).sum());
+            System.out.println("CV extraction cache at " + cacheDir + " (~" + currentBytes.get() + " bytes)");
+        } catch (IOException e) {
+            System.err.println("Could not open CV extraction cache, disabling it: " + e.getMessage());
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<CachedExtraction> get(String contentHash) {
+        if (!enabled || contentHash == null) {
+            return Optional.empty();
+        }
+
+        Path path = pathFor(contentHash);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            // La date de modification sert d'horodatage d'accès pour l'éviction
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty(); // Évincé entre-temps
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Corrupted extraction cache entry " + path + ", ignoring it: " + e.getMessage());
+            return Optional.empty();
+        }
+
+        return Optional.of(new CachedExtraction(properties));
+    }
+
+    public void put(String contentHash, String text, CvInfo cvInfo, String version) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        setIfNotNull(properties, "version", version);
+        setIfNotNull(properties, "text", text);
+        setIfNotNull(properties, "name", cvInfo.getName());
+        setIfNotNull(properties, "email", cvInfo.getEmail());
+        setIfNotNull(properties, "phone", cvInfo.getPhone());
+        setIfNotNull(properties, "description", cvInfo.getDescription());
+        setIfNotNull(properties, "skills", cvInfo.getSkills());
+        setIfNotNull(properties, "experience", cvInfo.getExperience());
+        setIfNotNull(properties, "education", cvInfo.getEducation());
+        setIfNotNull(properties, "linkedinUrl", cvInfo.getLinkedinUrl());
+        setIfNotNull(properties, "githubUrl", cvInfo.getGithubUrl());
+        properties.setProperty("skillIds", String.join("|", cvInfo.getSkillIds()));
+
+        Path path = pathFor(contentHash);
+        try {
+            Files.createDirectories(path.getParent());
+            long previousSize = Files.exists(path) ? Files.size(path) : 0;
+
+            // Écriture dans un fichier temporaire puis renommage atomique: un lecteur ne voit jamais d'entrée partielle
+            Path temp = Files.createTempFile(path.getParent(), contentHash, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            long size = Files.size(temp);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            if (currentBytes.addAndGet(size - previousSize) > maxBytes) {
+                evict();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write extraction cache entry for " + contentHash + ": " + e.getMessage());
+        }
+    }
+
+    // Supprime les entrées les moins récemment utilisées jusqu'à 90% de la taille maximale
+    private synchronized void evict() throws IOException {
+        List<CacheFile> entries = listEntries();
+        long total = entries.stream().mapToLong(CacheFile::size).sum();
+        long target = maxBytes * 9 / 10;
+        if (total <= maxBytes) {
+            currentBytes.set(total);
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(CacheFile::lastModified));
+        int evicted = 0;
+        for (CacheFile entry : entries) {
+            if (total <= target) {
+                break;
+            }
+            if (Files.deleteIfExists(entry.path())) {
+                total -= entry.size();
+                evicted++;
+            }
+        }
+        currentBytes.set(total);
+        System.out.println("CV extraction cache evicted " + evicted + " entries (~" + total + " bytes left)");
+    }
+
+    private List<CacheFile> listEntries() throws IOException {
+        List<CacheFile> entries = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(Paths.get(cacheDir), 2)) {
+            for (Path path : (Iterable<Path>) paths.filter(p -> p.toString().endsWith(".properties"))::iterator) {
+                try {
+                    entries.add(new CacheFile(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                } catch (NoSuchFileException e) {
+                    // Supprimé pendant le parcours
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Répartition sur 256 sous-répertoires pour garder des répertoires de taille raisonnable
+    private Path pathFor(String contentHash) {
+        return Paths.get(cacheDir, contentHash.substring(0, 2), contentHash + ".properties");
+    }
+
+    private static void setIfNotNull(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private record CacheFile(Path path, long size, long lastModified) {
+    }
+
+    public static class CachedExtraction {
+        private final Properties properties;
+
+        private CachedExtraction(Properties properties) {
+            this.properties = properties;
+        }
+
+        public String getVersion() {
+            return properties.getProperty("version");
+        }
+
+        public String getText() {
+            return properties.getProperty("text");
+        }
+
+        public void applyTo(CvInfo cvInfo) {
+            cvInfo.setName(properties.getProperty("name"));
+            cvInfo.setEmail(properties.getProperty("email"));
+            cvInfo.setPhone(properties.getProperty("phone"));
+            cvInfo.setDescription(properties.getProperty("description"));
+            cvInfo.setSkills(properties.getProperty("skills"));
+            cvInfo.setExperience(properties.getProperty("experience"));
+            cvInfo.setEducation(properties.getProperty("education"));
+            cvInfo.setLinkedinUrl(properties.getProperty("linkedinUrl"));
+            cvInfo.setGithubUrl(properties.getProperty("githubUrl"));
+
+            String skillIds = properties.getProperty("skillIds", "");
+            cvInfo.setSkillIds(skillIds.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(skillIds.split("\\|"))));
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.example.cvfilter.dao.HRManagerDao;
 import com.example.cvfilter.dao.entity.HRManager;
 import com.example.cvfilter.exception.UserNotFoundException;
 import com.example.cvfilter.service.impl.HRManagerServiceInterface;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,15 +12,16 @@ import java.util.List;
 public class HRManagerService implements HRManagerServiceInterface {
 
     private final HRManagerDao hrManagerDao;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
 
-    public HRManagerService(HRManagerDao hrManagerDao) {
+    public HRManagerService(HRManagerDao hrManagerDao, PasswordHashingService passwordHashingService) {
         this.hrManagerDao = hrManagerDao;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @Override
     public HRManager createHRManager(HRManager hrManager) {
-        hrManager.setPassword(passwordEncoder.encode(hrManager.getPassword()));
+        hrManager.setPassword(passwordHashingService.encode(hrManager.getPassword()));
         return hrManagerDao.save(hrManager);
     }
 
@@ -42,7 +42,7 @@ public class HRManagerService implements HRManagerServiceInterface {
         existing.setUsername(hrManager.getUsername());
         existing.setEmail(hrManager.getEmail());
         existing.setCompany(hrManager.getCompany());
-        existing.setPassword(passwordEncoder.encode(hrManager.getPassword()));
+        existing.setPassword(passwordHashingService.encode(hrManager.getPassword()));
         return hrManagerDao.save(existing);
     }
 
@@ -0,0 +1,93 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.dao.JobOfferDao;
+import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.service.impl.IngestionPriorityServiceInterface;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class IngestionPriorityService implements IngestionPriorityServiceInterface {
+
+    public static final int BOOST_PRIORITY = 1000;
+    public static final int RECENT_RANKING_PRIORITY = 500;
+    public static final int CLOSING_SOON_PRIORITY = 300;
+    public static final int CLOSED_PRIORITY = -100;
+
+    @Value("${cv.ingestion.priority.recent-ranking-window-ms:3600000}")
+    private long recentRankingWindowMs;
+
+    @Value("${cv.ingestion.priority.boost-duration-ms:3600000}")
+    private long boostDurationMs;
+
+    @Value("${cv.ingestion.priority.closing-soon-days:7}")
+    private int closingSoonDays;
+
+    private final JobOfferDao jobOfferDao;
+    private final CvExtractionWorkerPool workerPool;
+
+    // Offre -> instant de la dernière demande de classement / fin du boost
+    private final Map<Long, Long> lastRankingRequests = new ConcurrentHashMap<>();
+    private final Map<Long, Long> boostExpirations = new ConcurrentHashMap<>();
+
+    public IngestionPriorityService(JobOfferDao jobOfferDao, CvExtractionWorkerPool workerPool) {
+        this.jobOfferDao = jobOfferDao;
+        this.workerPool = workerPool;
+    }
+
+    @Override
+    public int getPriority(Long jobOfferId) {
+        long now = System.currentTimeMillis();
+        int priority = 0;
+
+        Long boostExpiration = boostExpirations.get(jobOfferId);
+        if (boostExpiration != null) {
+            if (boostExpiration > now) {
+                priority += BOOST_PRIORITY;
+            } else {
+                boostExpirations.remove(jobOfferId, boostExpiration);
+            }
+        }
+
+        Long lastRanking = lastRankingRequests.get(jobOfferId);
+        if (lastRanking != null) {
+            if (now - lastRanking <= recentRankingWindowMs) {
+                priority += RECENT_RANKING_PRIORITY;
+            } else {
+                lastRankingRequests.remove(jobOfferId, lastRanking);
+            }
+        }
+
+        LocalDate closingDate = jobOfferDao.findById(jobOfferId)
+                .map(JobOffer::getClosingDate)
+                .orElse(null);
+        if (closingDate != null) {
+            long daysLeft = ChronoUnit.DAYS.between(LocalDate.now(), closingDate);
+            if (daysLeft < 0) {
+                priority += CLOSED_PRIORITY;
+            } else if (daysLeft <= closingSoonDays) {
+                // Plus la clôture est proche, plus la priorité est haute
+                priority += (int) (CLOSING_SOON_PRIORITY * (closingSoonDays + 1 - daysLeft) / (closingSoonDays + 1));
+            }
+        }
+
+        return priority;
+    }
+
+    @Override
+    public void recordRankingRequest(Long jobOfferId) {
+        lastRankingRequests.put(jobOfferId, System.currentTimeMillis());
+    }
+
+    @Override
+    public void boost(Long jobOfferId) {
+        boostExpirations.put(jobOfferId, System.currentTimeMillis() + boostDurationMs);
+        // Les CVs déjà en file pour cette offre passent devant les autres
+        workerPool.reprioritize(jobOfferId, getPriority(jobOfferId));
+    }
+}
@@ -2,17 +2,27 @@ package com.example.cvfilter.service;
 
 import com.example.cvfilter.dao.JobOfferDao;
 import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
+import com.example.cvfilter.dto.JobOfferPageResponse;
+import com.example.cvfilter.dto.JobOfferSummary;
 import com.example.cvfilter.exception.InvalidJobOfferException;
 import com.example.cvfilter.service.impl.JobOfferServiceInterface;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class JobOfferService implements JobOfferServiceInterface {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NULL_DATE = "-";
+
     private final JobOfferDao jobOfferDao;
 
     public JobOfferService(JobOfferDao jobOfferDao) {
@@ -35,6 +45,41 @@ public class JobOfferService implements JobOfferServiceInterface {
         return jobOfferDao.findActiveOffers();
     }
 
+    // Pagination par clé: le curseur contient la (posting_date, id) de la dernière offre renvoyée
+    @Override
+    public JobOfferPageResponse getPage(String cursor, Integer limit, String location, String department,
+                                        EmploymentType employmentType, Boolean active) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidJobOfferException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDate afterPostingDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+                afterPostingDate = NULL_DATE.equals(parts[0]) ? null : LocalDate.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidJobOfferException("Invalid cursor");
+            }
+        }
+
+        // Une offre de plus que demandé: indique s'il reste une page
+        List<JobOfferSummary> items = jobOfferDao.findSummaries(blankToNull(location), blankToNull(department),
+                employmentType, active, afterPostingDate, afterId, pageSize + 1);
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            JobOfferSummary last = items.get(pageSize - 1);
+            String key = (last.getPostingDate() == null ? NULL_DATE : last.getPostingDate().toString()) + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+        return new JobOfferPageResponse(items, nextCursor);
+    }
+
     @Override
     public Optional<JobOffer> getById(Long id) {
         if (id == null || id <= 0) {
@@ -50,7 +95,7 @@ public class JobOfferService implements JobOfferServiceInterface {
             throw new InvalidJobOfferException("Invalid job offer ID.");
         }
 
-        return jobOfferDao.findById(id)
+        return jobOfferDao.loadForUpdate(id)
                 .map(existing -> {
                     updateJobOfferFields(existing, updated);
                     return jobOfferDao.save(existing);
@@ -71,7 +116,7 @@ public class JobOfferService implements JobOfferServiceInterface {
 
     @Override
     public boolean deactivate(Long id) {
-        return jobOfferDao.findById(id)
+        return jobOfferDao.loadForUpdate(id)
                 .map(offer -> {
                     offer.setActive(false);
                     jobOfferDao.save(offer);
@@ -94,6 +139,10 @@ public class JobOfferService implements JobOfferServiceInterface {
 
     // --- Private helper methods (unchanged) ---
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     private void validateJobOffer(JobOffer offer) {
         if (offer.getTitle() == null || offer.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("Job title cannot be empty");
@@ -0,0 +1,155 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.util.AhoCorasickMatcher;
+import com.example.cvfilter.util.ContentHashUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+
+// Dictionnaire de compétences chargé une fois (id,label,alias1|alias2...) et compilé en automate
+@Component
+public class SkillDictionary {
+
+    @Value("${cv.skills.dictionary:classpath:skills/skills.csv}")
+    private String dictionaryLocation;
+
+    private final ResourceLoader resourceLoader;
+
+    private volatile Compiled compiled = new Compiled(new LinkedHashMap<>(), List.of());
+    private volatile String fingerprint = "";
+
+    public SkillDictionary(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        reload();
+    }
+
+    public synchronized void reload() throws IOException {
+        Resource resource = resourceLoader.getResource(dictionaryLocation);
+        Map<String, String> labels = new LinkedHashMap<>();
+        Map<String, String> surfaceForms = new LinkedHashMap<>();
+        MessageDigest digest = ContentHashUtil.newSha256();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // En-tête
+            while ((line = reader.readLine()) != null) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] columns = line.split(",", 3);
+                if (columns.length < 2) {
+                    System.err.println("Invalid skill dictionary line: " + line);
+                    continue;
+                }
+
+                String id = columns[0].trim();
+                labels.put(id, columns[1].trim());
+                addSurfaceForm(surfaceForms, columns[1], id);
+                if (columns.length > 2) {
+                    for (String alias : columns[2].split("\\|")) {
+                        addSurfaceForm(surfaceForms, alias, id);
+                    }
+                }
+            }
+        }
+
+        List<String> forms = new ArrayList<>(surfaceForms.keySet());
+        List<String> formIds = new ArrayList<>(surfaceForms.values());
+        compiled = new Compiled(labels, formIds, new AhoCorasickMatcher(forms));
+        fingerprint = ContentHashUtil.toHex(digest.digest()).substring(0, 16);
+
+        System.out.println("Skill dictionary loaded " + labels.size() + " skills (" + forms.size() + " surface forms) from " + dictionaryLocation);
+    }
+
+    // Identifiants normalisés des compétences trouvées, dans l'ordre d'apparition
+    public List<String> findSkillIds(String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Compiled current = compiled;
+        if (current.matcher == null) {
+            return new ArrayList<>();
+        }
+
+        List<int[]> matches = new ArrayList<>();
+        current.matcher.scan(text, (formIndex, start, end) -> {
+            if (isWordBoundary(text, start - 1) && isWordBoundary(text, end)) {
+                matches.add(new int[]{start, end, formIndex});
+            }
+        });
+
+        // Correspondance la plus longue d'abord: "spring boot" l'emporte sur "spring", "javascript" n'est jamais "java"
+        matches.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]));
+
+        Set<String> ids = new LinkedHashSet<>();
+        int coveredUntil = -1;
+        for (int[] match : matches) {
+            if (match[0] >= coveredUntil) {
+                ids.add(current.formIds.get(match[2]));
+                coveredUntil = match[1];
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // Change dès que le contenu du dictionnaire change: invalide les résultats d'extraction mis en cache
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getLabel(String skillId) {
+        return compiled.labels.getOrDefault(skillId, skillId);
+    }
+
+    public boolean contains(String skillId) {
+        return compiled.labels.containsKey(skillId);
+    }
+
+    private static void addSurfaceForm(Map<String, String> surfaceForms, String form, String id) {
+        String normalized = form.trim().toLowerCase();
+        // Une lettre seule ("C", "R") produirait trop de faux positifs: seuls les alias explicites comptent
+        if (normalized.length() < 2) {
+            return;
+        }
+        String previous = surfaceForms.putIfAbsent(normalized, id);
+        if (previous != null && !previous.equals(id)) {
+            System.err.println("Skill surface form '" + normalized + "' already mapped to " + previous + ", ignored for " + id);
+        }
+    }
+
+    private static boolean isWordBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static final class Compiled {
+        private final Map<String, String> labels;
+        private final List<String> formIds;
+        private final AhoCorasickMatcher matcher;
+
+        private Compiled(Map<String, String> labels, List<String> formIds) {
+            this(labels, formIds, null);
+        }
+
+        private Compiled(Map<String, String> labels, List<String> formIds, AhoCorasickMatcher matcher) {
+            this.labels = labels;
+            this.formIds = formIds;
+            this.matcher = matcher;
+        }
+    }
+}
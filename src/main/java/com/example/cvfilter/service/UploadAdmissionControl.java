@@ -0,0 +1,180 @@
+package com.example.cvfilter.service;
+
+import com.example.cvfilter.exception.UploadRateLimitException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admission des uploads: un seau de jetons par utilisateur (un jeton par CV ou par morceau) et une limite globale
+// d'écritures simultanées. Les seaux sont indexés par le nom d'utilisateur du token (appliqué par UploadAdmissionFilter,
+// avant la lecture du corps) et répartis sur des verrous (stripes).
+@Component
+public class UploadAdmissionControl {
+
+    @Value("${cv.upload.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cv.upload.admission.bucket-capacity:20}")
+    private int bucketCapacity;
+
+    @Value("${cv.upload.admission.refill-per-minute:10}")
+    private double refillPerMinute;
+
+    @Value("${cv.upload.admission.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${cv.upload.admission.acquire-timeout-ms:500}")
+    private long acquireTimeoutMs;
+
+    @Value("${cv.upload.admission.stripes:16}")
+    private int stripeCount;
+
+    private Stripe[] stripes;
+    private Semaphore ioPermits;
+    private double tokensPerNano;
+
+    @PostConstruct
+    public void init() {
+        stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        ioPermits = new Semaphore(Math.max(1, maxConcurrent), true);
+        tokensPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        if (enabled) {
+            System.out.println("Upload admission: " + bucketCapacity + " uploads burst, " + refillPerMinute +
+                    "/min per user, " + maxConcurrent + " concurrent uploads");
+        }
+    }
+
+    // Prend un jeton de l'utilisateur puis une place d'écriture; à fermer une fois le fichier écrit
+    public Permit admit(String username) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        long waitNanos = consume(username, 1);
+        if (waitNanos > 0) {
+            throw new UploadRateLimitException("Too many CV uploads, retry later", toRetryAfterSeconds(waitNanos));
+        }
+        try {
+            return acquireIo();
+        } catch (UploadRateLimitException e) {
+            // Le jeton n'a pas servi
+            refund(username, 1);
+            throw e;
+        }
+    }
+
+    // Fichier supplémentaire dans une requête déjà admise (archive ZIP): pas d'attente, seulement le jeton
+    public boolean tryConsume(String username) {
+        return !enabled || consume(username, 1) == 0;
+    }
+
+    // Place d'écriture seule (finalisation d'un upload reprenable, dont les morceaux ont déjà été comptés)
+    public Permit acquireIo() {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        try {
+            if (!ioPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new UploadRateLimitException("Too many concurrent CV uploads, retry later", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UploadRateLimitException("Interrupted while waiting for an upload slot", 1);
+        }
+        return new Permit(ioPermits);
+    }
+
+    // Seaux pleins: identiques à un seau neuf, ils peuvent être oubliés
+    @Scheduled(fixedRateString = "${cv.upload.admission.sweep-interval-ms:600000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.buckets.values().removeIf(bucket -> refill(bucket, now) >= bucketCapacity);
+            }
+        }
+    }
+
+    // Retourne 0 si les jetons ont été pris, sinon l'attente (ns) avant qu'ils soient disponibles
+    private long consume(String username, int tokens) {
+        Stripe stripe = stripeFor(username);
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.buckets.computeIfAbsent(username, name -> new TokenBucket(bucketCapacity, now));
+            double available = refill(bucket, now);
+            if (available >= tokens) {
+                bucket.tokens = available - tokens;
+                return 0;
+            }
+            if (tokensPerNano <= 0) {
+                return TimeUnit.MINUTES.toNanos(1);
+            }
+            return (long) Math.ceil((tokens - available) / tokensPerNano);
+        }
+    }
+
+    private void refund(String username, int tokens) {
+        Stripe stripe = stripeFor(username);
+        synchronized (stripe) {
+            TokenBucket bucket = stripe.buckets.get(username);
+            if (bucket != null) {
+                bucket.tokens = Math.min(bucketCapacity, bucket.tokens + tokens);
+            }
+        }
+    }
+
+    private double refill(TokenBucket bucket, long now) {
+        bucket.tokens = Math.min(bucketCapacity, bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano);
+        bucket.lastRefillNanos = now;
+        return bucket.tokens;
+    }
+
+    private Stripe stripeFor(String username) {
+        return stripes[Math.floorMod(username.hashCode(), stripes.length)];
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class Stripe {
+        private final Map<String, TokenBucket> buckets = new HashMap<>();
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+    }
+
+    public static final class Permit implements AutoCloseable {
+        private static final Permit NONE = new Permit(null);
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (semaphore != null && released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+}
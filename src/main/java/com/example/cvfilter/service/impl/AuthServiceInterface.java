@@ -4,10 +4,12 @@ import com.example.cvfilter.dao.entity.User;
 import com.example.cvfilter.dto.JwtResponse;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface AuthServiceInterface {
     //User register(User user);
     JwtResponse register(User user);
     JwtResponse login(String email, String password);
+    CompletableFuture<JwtResponse> loginAsync(String email, String password);
     //Optional<JwtResponse> login(String email, String password);
 }
\ No newline at end of file
@@ -7,5 +7,6 @@ import java.io.IOException;
 
 public interface CvExtractionServiceInterface {
     CvInfo extractCvInfo(File cvFile, Long userId, Long jobOfferId) throws IOException;
+    CvInfo extractCvInfo(File cvFile, Long userId, Long jobOfferId, String contentHash) throws IOException;
     CvInfo extractCvInfo(File cvFile, Long userId) throws IOException;
 }
\ No newline at end of file
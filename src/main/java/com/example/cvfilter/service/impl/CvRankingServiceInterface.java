@@ -8,4 +8,5 @@ public interface CvRankingServiceInterface {
 
     List<CvRanking> getBestCvsForJob(Long jobOfferId);
     List<CvRanking> getTopCvsForJob(Long jobOfferId, int topN);
+    List<CvRanking> getTopCvsForJob(Long jobOfferId, int topN, List<String> requiredSkills);
 }
\ No newline at end of file
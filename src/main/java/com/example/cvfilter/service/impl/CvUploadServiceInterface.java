@@ -1,10 +1,24 @@
 package com.example.cvfilter.service.impl;
 
+import com.example.cvfilter.dto.BulkCvUploadResponse;
+import com.example.cvfilter.dto.ChunkedUploadInitRequest;
+import com.example.cvfilter.dto.ChunkedUploadStatusResponse;
+import com.example.cvfilter.dto.CvExtractionStatusResponse;
+import com.example.cvfilter.dto.CvUploadResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 public interface CvUploadServiceInterface {
     String uploadCv(Long jobId, MultipartFile file) throws IOException;
-    String uploadCv(Long jobId, MultipartFile file, String username) throws IOException;
+    CvUploadResponse uploadCv(Long jobId, InputStream body, String contentType, long contentLength, String username);
+    CvUploadResponse uploadCvStream(Long jobId, InputStream body, long contentLength, String filename, String username);
+    BulkCvUploadResponse uploadCvZip(Long jobId, InputStream body, long contentLength, String username);
+    ChunkedUploadStatusResponse initChunkedUpload(Long jobId, ChunkedUploadInitRequest request, String username);
+    ChunkedUploadStatusResponse uploadChunk(String uploadId, long offset, InputStream body, long contentLength, String username);
+    ChunkedUploadStatusResponse getChunkedUploadStatus(String uploadId, String username);
+    CvUploadResponse completeChunkedUpload(String uploadId, String username);
+    void cancelChunkedUpload(String uploadId, String username);
+    CvExtractionStatusResponse getExtractionStatus(String trackingId, String username);
 }
@@ -0,0 +1,7 @@
+package com.example.cvfilter.service.impl;
+
+public interface IngestionPriorityServiceInterface {
+    int getPriority(Long jobOfferId);
+    void recordRankingRequest(Long jobOfferId);
+    void boost(Long jobOfferId);
+}
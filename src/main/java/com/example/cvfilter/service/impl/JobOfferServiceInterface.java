@@ -1,6 +1,8 @@
 package com.example.cvfilter.service.impl;
 
 import com.example.cvfilter.dao.entity.JobOffer;
+import com.example.cvfilter.dao.entity.JobOffer.EmploymentType;
+import com.example.cvfilter.dto.JobOfferPageResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +15,9 @@ public interface JobOfferServiceInterface {
 
     List<JobOffer> getActiveOffers();
 
+    JobOfferPageResponse getPage(String cursor, Integer limit, String location, String department,
+                                 EmploymentType employmentType, Boolean active);
+
     Optional<JobOffer> getById(Long id);
 
     Optional<JobOffer> update(Long id, JobOffer updated);
@@ -0,0 +1,105 @@
+package com.example.cvfilter.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Automate Aho-Corasick insensible à la casse: tous les mots-clés sont trouvés en un seul passage.
+// Immuable après construction, donc partageable entre threads.
+public final class AhoCorasickMatcher {
+
+    @FunctionalInterface
+    public interface MatchListener {
+        // start inclus, end exclu, keywordIndex = position du mot-clé dans la liste de construction
+        void onMatch(int keywordIndex, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final List<String> keywords;
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private int[] failure;
+    private int[][] outputs;
+
+    public AhoCorasickMatcher(List<String> keywords) {
+        this.keywords = List.copyOf(keywords);
+        build();
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public void scan(CharSequence text, MatchListener listener) {
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = failure[state];
+            }
+            state = next == null ? 0 : next;
+
+            for (int keywordIndex : outputs[state]) {
+                listener.onMatch(keywordIndex, i + 1 - keywords.get(keywordIndex).length(), i + 1);
+            }
+        }
+    }
+
+    private void build() {
+        transitions.add(new HashMap<>());
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        nodeOutputs.add(new ArrayList<>());
+
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new HashMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            nodeOutputs.get(state).add(k);
+        }
+
+        // Liens d'échec calculés en largeur: chaque nœud hérite des sorties de son suffixe le plus long
+        failure = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                queue.add(child);
+
+                int fallback = failure[state];
+                while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure[fallback];
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                failure[child] = target == null || target == child ? 0 : target;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+            }
+        }
+
+        outputs = new int[transitions.size()][];
+        for (int state = 0; state < outputs.length; state++) {
+            List<Integer> output = nodeOutputs.get(state);
+            outputs[state] = output.isEmpty() ? NO_OUTPUT : output.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
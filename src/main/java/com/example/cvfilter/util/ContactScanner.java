@@ -0,0 +1,276 @@
+package com.example.cvfilter.util;
+
+// Extraction des coordonnées (email, téléphone, LinkedIn, GitHub) en un seul passage sur le texte.
+// Automate écrit à la main: chaque caractère est examiné un nombre borné de fois, sans retour arrière.
+public final class ContactScanner {
+
+    private static final String LINKEDIN_HOST = "linkedin.com/";
+    private static final String GITHUB_HOST = "github.com/";
+
+    // Qualité d'un numéro: un format reconnu l'emporte sur une simple suite de chiffres
+    private static final int PHONE_GENERIC = 1;
+    private static final int PHONE_INTERNATIONAL = 2;
+    private static final int PHONE_NATIONAL = 3;
+    private static final int MIN_PHONE_DIGITS = 8;
+
+    private ContactScanner() {
+    }
+
+    public static Contacts scan(String text) {
+        Contacts contacts = new Contacts();
+        if (text == null || text.isEmpty()) {
+            return contacts;
+        }
+
+        int phoneQuality = 0;
+        // Début de la zone pas encore consommée par un email: borne le retour arrière sur la partie locale
+        int localPartFloor = 0;
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '@') {
+                int end = scanEmail(text, i, localPartFloor, contacts);
+                localPartFloor = i + 1;
+                i = Math.max(i + 1, end);
+                continue;
+            }
+
+            if ((c == '+' || isDigit(c)) && (i == 0 || !isLetterOrDigit(text.charAt(i - 1)))) {
+                int end = scanPhoneRun(text, i);
+                if (end > i) {
+                    int quality = phoneQuality(text, i, end);
+                    if (quality > phoneQuality) {
+                        contacts.phone = text.substring(i, end);
+                        phoneQuality = quality;
+                    }
+                    i = end;
+                    continue;
+                }
+            }
+
+            if ((c == 'l' || c == 'L') && contacts.linkedinUrl == null && text.regionMatches(true, i, LINKEDIN_HOST, 0, LINKEDIN_HOST.length())) {
+                int end = scanUrlPath(text, i + LINKEDIN_HOST.length());
+                if (end > i + LINKEDIN_HOST.length()) {
+                    contacts.linkedinUrl = "https://www." + text.substring(i, end).toLowerCase();
+                }
+                i = Math.max(i + 1, end);
+                continue;
+            }
+
+            if ((c == 'g' || c == 'G') && contacts.githubUrl == null && text.regionMatches(true, i, GITHUB_HOST, 0, GITHUB_HOST.length())) {
+                int end = scanUrlPath(text, i + GITHUB_HOST.length());
+                if (end > i + GITHUB_HOST.length()) {
+                    contacts.githubUrl = "https://" + text.substring(i, end).toLowerCase();
+                }
+                i = Math.max(i + 1, end);
+                continue;
+            }
+
+            i++;
+        }
+
+        return contacts;
+    }
+
+    // Retourne la fin de la zone examinée après le '@'
+    private static int scanEmail(String text, int at, int floor, Contacts contacts) {
+        // Partie locale: on remonte jusqu'au premier caractère non autorisé (jamais au-delà du '@' précédent)
+        int start = at;
+        while (start > floor && isLocalPartChar(text.charAt(start - 1))) {
+            start--;
+        }
+        while (start < at && !isLetterOrDigit(text.charAt(start))) {
+            start++;
+        }
+        int localEnd = at;
+        while (localEnd > start && !isLetterOrDigit(text.charAt(localEnd - 1))) {
+            localEnd--;
+        }
+
+        // Domaine: lettres, chiffres, '.' et '-'; un libellé ne peut être vide ni commencer ou finir par '-'
+        int end = at + 1;
+        while (end < text.length() && isDomainChar(text.charAt(end)) && !isLabelBreak(text.charAt(end - 1), text.charAt(end))) {
+            end++;
+        }
+
+        if (contacts.email != null || localEnd != at || start >= at || end == at + 1 || !isLetterOrDigit(text.charAt(at + 1))) {
+            return end;
+        }
+
+        // On retire les libellés finaux jusqu'à trouver un TLD alphabétique d'au moins 2 lettres
+        int domainEnd = end;
+        while (domainEnd > at + 1) {
+            while (domainEnd > at + 1 && !isLetterOrDigit(text.charAt(domainEnd - 1))) {
+                domainEnd--;
+            }
+            int labelStart = domainEnd;
+            while (labelStart > at + 1 && text.charAt(labelStart - 1) != '.') {
+                labelStart--;
+            }
+            if (labelStart == at + 1) {
+                return end; // Pas de point dans le domaine
+            }
+            if (domainEnd - labelStart >= 2 && isAlphabetic(text, labelStart, domainEnd)
+                    && (domainEnd == text.length() || !isLetterOrDigit(text.charAt(domainEnd)) || text.charAt(domainEnd) == '.')) {
+                contacts.email = text.substring(start, domainEnd).toLowerCase();
+                return end;
+            }
+            domainEnd = labelStart - 1;
+        }
+        return end;
+    }
+
+    // Suite de chiffres séparés par au plus un séparateur (espace, '.', '-', parenthèses); se termine sur un chiffre.
+    // Un '+' (qui n'est pas un séparateur), une année en tête ("2019 - 2023 06 12 ...") ou, hors indicatif, un groupe
+    // d'au moins MIN_PHONE_DIGITS chiffres terminent la suite: ce qui suit est un nouveau candidat, pas une suite de la date.
+    private static int scanPhoneRun(String text, int start) {
+        boolean international = text.charAt(start) == '+' || text.startsWith("00", start);
+        int i = start;
+        if (text.charAt(i) == '+') {
+            i++;
+        }
+
+        int lastDigitEnd = -1;
+        int separators = 0;
+        boolean firstGroup = true;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                if (separators > 0) {
+                    boolean afterYear = firstGroup && !international && lastDigitEnd - start == 4 && looksLikeYear(text, start);
+                    if (afterYear || (!international && digitGroupLength(text, i) >= MIN_PHONE_DIGITS)) {
+                        break;
+                    }
+                    firstGroup = false;
+                }
+                lastDigitEnd = i + 1;
+                separators = 0;
+            } else if (c == ' ' || c == '.' || c == '-' || c == '(' || c == ')') {
+                // "(0) " ou ") " restent acceptés, au-delà c'est une autre donnée
+                if (++separators > 2) {
+                    break;
+                }
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        return lastDigitEnd == -1 ? start : lastDigitEnd;
+    }
+
+    private static int digitGroupLength(String text, int start) {
+        int end = start;
+        while (end < text.length() && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end - start;
+    }
+
+    private static int phoneQuality(String text, int start, int end) {
+        int digits = 0;
+        int groups = 0;
+        int[] groupLengths = new int[2];
+        boolean inGroup = false;
+        for (int i = start; i < end; i++) {
+            if (isDigit(text.charAt(i))) {
+                digits++;
+                if (!inGroup) {
+                    groups++;
+                    inGroup = true;
+                }
+                if (groups <= 2) {
+                    groupLengths[groups - 1]++;
+                }
+            } else {
+                inGroup = false;
+            }
+        }
+
+        if (digits < MIN_PHONE_DIGITS || digits > 15) {
+            return 0;
+        }
+        // "2019-2022" ou "2019 2022": une période, pas un numéro
+        if (groups == 2 && groupLengths[0] == 4 && groupLengths[1] == 4 && looksLikeYear(text, start)) {
+            return 0;
+        }
+
+        boolean international = text.charAt(start) == '+' || text.startsWith("00", start);
+        if (international && (text.startsWith("33", start + 1) || text.startsWith("216", start + 1))) {
+            return PHONE_NATIONAL;
+        }
+        // France: 0 suivi de 9 chiffres; Tunisie: 8 chiffres commençant par 2, 4, 5, 7 ou 9
+        char first = text.charAt(start);
+        if ((first == '0' && digits == 10) || (digits == 8 && "24579".indexOf(first) >= 0)) {
+            return PHONE_NATIONAL;
+        }
+        return international ? PHONE_INTERNATIONAL : PHONE_GENERIC;
+    }
+
+    private static int scanUrlPath(String text, int start) {
+        int end = start;
+        while (end < text.length() && isUrlPathChar(text.charAt(end))) {
+            end++;
+        }
+        while (end > start && (text.charAt(end - 1) == '.' || text.charAt(end - 1) == '/')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean looksLikeYear(String text, int start) {
+        return text.startsWith("19", start) || text.startsWith("20", start);
+    }
+
+    private static boolean isAlphabetic(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isLetter(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '-' || c == '+';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetterOrDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isLabelBreak(char previous, char c) {
+        return (c == '.' && (previous == '.' || previous == '-')) || (c == '-' && previous == '.');
+    }
+
+    private static boolean isUrlPathChar(char c) {
+        return isLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == '/' || c == '%';
+    }
+
+    public static final class Contacts {
+        private String email;
+        private String phone;
+        private String linkedinUrl;
+        private String githubUrl;
+
+        public String getEmail() { return email; }
+        public String getPhone() { return phone; }
+        public String getLinkedinUrl() { return linkedinUrl; }
+        public String getGithubUrl() { return githubUrl; }
+    }
+}
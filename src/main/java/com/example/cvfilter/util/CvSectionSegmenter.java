@@ -0,0 +1,182 @@
+package com.example.cvfilter.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Découpe un CV en sections (compétences, expérience, formation) en un seul passage sur le texte.
+// Toutes les sections utilisent les mêmes règles de fin: elles sont donc cohérentes entre elles.
+public final class CvSectionSegmenter {
+
+    public enum SectionType {
+        SKILLS, EXPERIENCE, EDUCATION, OTHER
+    }
+
+    // Longueur maximale d'une section après son titre
+    public static final int MAX_SECTION_LENGTH = 800;
+
+    private static final List<Keyword> KEYWORDS = List.of(
+            // Compétences
+            new Keyword("compétences", SectionType.SKILLS, true),
+            new Keyword("compétence", SectionType.SKILLS, false),
+            new Keyword("skills", SectionType.SKILLS, false),
+            new Keyword("savoir-faire", SectionType.SKILLS, false),
+            new Keyword("aptitudes", SectionType.SKILLS, false),
+            new Keyword("technologies", SectionType.SKILLS, false),
+            new Keyword("technical skills", SectionType.SKILLS, false),
+            new Keyword("outils", SectionType.SKILLS, false),
+            new Keyword("logiciels", SectionType.SKILLS, false),
+            new Keyword("connaissances", SectionType.SKILLS, false),
+            // Expérience
+            new Keyword("expérience", SectionType.EXPERIENCE, true),
+            new Keyword("expériences professionnelles", SectionType.EXPERIENCE, false),
+            new Keyword("experience", SectionType.EXPERIENCE, true),
+            new Keyword("work experience", SectionType.EXPERIENCE, false),
+            new Keyword("professional experience", SectionType.EXPERIENCE, false),
+            new Keyword("emploi", SectionType.EXPERIENCE, false),
+            new Keyword("carrière", SectionType.EXPERIENCE, false),
+            new Keyword("parcours professionnel", SectionType.EXPERIENCE, false),
+            new Keyword("historique", SectionType.EXPERIENCE, false),
+            // Formation: les mots comme "master" ou "université" ouvrent la section mais n'en terminent pas d'autres
+            new Keyword("formation", SectionType.EDUCATION, true),
+            new Keyword("formations", SectionType.EDUCATION, false),
+            new Keyword("education", SectionType.EDUCATION, true),
+            new Keyword("diplômes", SectionType.EDUCATION, false),
+            new Keyword("diplôme", SectionType.EDUCATION, true),
+            new Keyword("études", SectionType.EDUCATION, false),
+            new Keyword("academic", SectionType.EDUCATION, false),
+            new Keyword("university", SectionType.EDUCATION, false),
+            new Keyword("université", SectionType.EDUCATION, false),
+            new Keyword("école", SectionType.EDUCATION, false),
+            new Keyword("degree", SectionType.EDUCATION, false),
+            new Keyword("bts", SectionType.EDUCATION, false),
+            new Keyword("master", SectionType.EDUCATION, false),
+            new Keyword("licence", SectionType.EDUCATION, false),
+            new Keyword("baccalauréat", SectionType.EDUCATION, false),
+            new Keyword("doctorat", SectionType.EDUCATION, false),
+            new Keyword("ingénieur", SectionType.EDUCATION, false),
+            // Autres rubriques: elles ne font que terminer les sections précédentes
+            new Keyword("langues", SectionType.OTHER, true),
+            new Keyword("languages", SectionType.OTHER, true),
+            new Keyword("centres d'intérêt", SectionType.OTHER, true),
+            new Keyword("loisirs", SectionType.OTHER, true),
+            new Keyword("hobbies", SectionType.OTHER, true),
+            new Keyword("interests", SectionType.OTHER, true)
+    );
+
+    private static final AhoCorasickMatcher MATCHER =
+            new AhoCorasickMatcher(KEYWORDS.stream().map(keyword -> keyword.text).toList());
+
+    private CvSectionSegmenter() {
+    }
+
+    public static SectionMap segment(String content) {
+        // Première occurrence de chaque mot-clé, et toutes les positions des titres qui terminent une section
+        int[] firstOccurrence = new int[KEYWORDS.size()];
+        Arrays.fill(firstOccurrence, -1);
+        List<int[]> boundaries = new ArrayList<>();
+
+        MATCHER.scan(content, (keywordIndex, start, end) -> {
+            if (firstOccurrence[keywordIndex] == -1) {
+                firstOccurrence[keywordIndex] = start;
+            }
+            if (KEYWORDS.get(keywordIndex).boundary) {
+                boundaries.add(new int[]{start, keywordIndex});
+            }
+        });
+
+        List<Section> sections = new ArrayList<>();
+        for (int k = 0; k < KEYWORDS.size(); k++) {
+            int start = firstOccurrence[k];
+            if (start == -1) {
+                continue;
+            }
+
+            Keyword keyword = KEYWORDS.get(k);
+            int headingEnd = start + keyword.text.length();
+            int end = Math.min(content.length(), headingEnd + MAX_SECTION_LENGTH);
+
+            // La section s'arrête au premier titre d'un autre type qui suit le sien
+            for (int[] boundary : boundaries) {
+                if (boundary[0] >= headingEnd && boundary[0] < end && KEYWORDS.get(boundary[1]).type != keyword.type) {
+                    end = boundary[0];
+                }
+            }
+
+            if (end > start) {
+                sections.add(new Section(keyword.type, keyword.text, start, end));
+            }
+        }
+
+        return new SectionMap(content, sections);
+    }
+
+    public static final class SectionMap {
+        private final String content;
+        // Dans l'ordre de priorité des mots-clés
+        private final List<Section> sections;
+
+        private SectionMap(String content, List<Section> sections) {
+            this.content = content;
+            this.sections = Collections.unmodifiableList(sections);
+        }
+
+        public List<Section> getSections() {
+            return sections;
+        }
+
+        // Une section par mot-clé trouvé, dans l'ordre de priorité
+        public List<String> texts(SectionType type) {
+            List<String> texts = new ArrayList<>();
+            for (Section section : sections) {
+                if (section.type == type) {
+                    texts.add(content.substring(section.start, section.end));
+                }
+            }
+            return texts;
+        }
+
+        // Section du mot-clé le plus prioritaire trouvé
+        public String first(SectionType type) {
+            for (Section section : sections) {
+                if (section.type == type) {
+                    return content.substring(section.start, section.end);
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class Section {
+        private final SectionType type;
+        private final String keyword;
+        private final int start;
+        private final int end;
+
+        private Section(SectionType type, String keyword, int start, int end) {
+            this.type = type;
+            this.keyword = keyword;
+            this.start = start;
+            this.end = end;
+        }
+
+        public SectionType getType() { return type; }
+        public String getKeyword() { return keyword; }
+        public int getStart() { return start; }
+        public int getEnd() { return end; }
+    }
+
+    private static final class Keyword {
+        private final String text;
+        private final SectionType type;
+        // Vrai si ce mot-clé termine les sections d'un autre type
+        private final boolean boundary;
+
+        private Keyword(String text, SectionType type, boolean boundary) {
+            this.text = text;
+            this.type = type;
+            this.boundary = boundary;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.cvfilter.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// Extraction DOCX en flux (StAX): aucun modèle objet, seuls les nœuds texte sont conservés.
+// Couvre le corps, les tableaux, les zones de texte, les en-têtes et les pieds de page.
+public final class DocxTextExtractor {
+
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String MARKUP_COMPATIBILITY_NS = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final Pattern HEADER_PART = Pattern.compile("word/header\\d*\\.xml");
+    private static final Pattern FOOTER_PART = Pattern.compile("word/footer\\d*\\.xml");
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final long maxPartBytes;
+    private final int maxChars;
+
+    public DocxTextExtractor(long maxPartBytes, int maxChars) {
+        this.maxPartBytes = maxPartBytes;
+        this.maxChars = maxChars;
+    }
+
+    // Les en-têtes portent souvent le nom et les coordonnées: ils sont émis avant le corps
+    public String extract(File file) throws IOException {
+        StringBuilder text = new StringBuilder();
+
+        try (ZipFile zip = new ZipFile(file)) {
+            List<ZipEntry> headers = new ArrayList<>();
+            List<ZipEntry> footers = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (HEADER_PART.matcher(entry.getName()).matches()) {
+                    headers.add(entry);
+                } else if (FOOTER_PART.matcher(entry.getName()).matches()) {
+                    footers.add(entry);
+                }
+            }
+
+            ZipEntry document = zip.getEntry(DOCUMENT_PART);
+            if (document == null) {
+                throw new IOException("Not a DOCX document (missing " + DOCUMENT_PART + "): " + file.getName());
+            }
+
+            for (ZipEntry header : headers) {
+                extractPart(zip, header, text);
+            }
+            extractPart(zip, document, text);
+            for (ZipEntry footer : footers) {
+                extractPart(zip, footer, text);
+            }
+        }
+
+        return text.toString();
+    }
+
+    private void extractPart(ZipFile zip, ZipEntry entry, StringBuilder text) throws IOException {
+        if (text.length() >= maxChars) {
+            return;
+        }
+
+        try (InputStream in = new BoundedInputStream(zip.getInputStream(entry), maxPartBytes, entry.getName())) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                readText(reader, text);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed DOCX part " + entry.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void readText(XMLStreamReader reader, StringBuilder text) throws XMLStreamException {
+        boolean inText = false;
+        // w:tab est aussi la définition d'un taquet dans w:pPr/w:tabs: seul celui d'un w:r est un caractère
+        int runDepth = 0;
+        // mc:Fallback duplique le contenu de mc:Choice (zones de texte VML): on l'ignore
+        int fallbackDepth = 0;
+
+        while (reader.hasNext() && text.length() < maxChars) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (fallbackDepth > 0 || isElement(reader, MARKUP_COMPATIBILITY_NS, "Fallback")) {
+                    fallbackDepth++;
+                    continue;
+                }
+                if (!WORD_NS.equals(reader.getNamespaceURI())) {
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "t" -> inText = true;
+                    case "r" -> runDepth++;
+                    case "tab" -> {
+                        if (runDepth > 0) {
+                            text.append('\t');
+                        }
+                    }
+                    case "br", "cr" -> text.append('\n');
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (fallbackDepth > 0) {
+                    fallbackDepth--;
+                    continue;
+                }
+                if (!WORD_NS.equals(reader.getNamespaceURI())) {
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "t" -> inText = false;
+                    case "r" -> runDepth--;
+                    case "p" -> {
+                        ExtractionBudget.checkCurrent();
+                        endLine(text);
+                    }
+                    case "tc" -> text.append('\t');
+                    case "tr" -> endLine(text);
+                    default -> {
+                    }
+                }
+            } else if (inText && fallbackDepth == 0
+                    && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+                text.append(reader.getTextCharacters(), reader.getTextStart(),
+                        Math.min(reader.getTextLength(), maxChars - text.length()));
+            }
+        }
+    }
+
+    // Comme XWPF, les paragraphes vides ne produisent pas de ligne
+    private static void endLine(StringBuilder text) {
+        int length = text.length();
+        while (length > 0 && (text.charAt(length - 1) == '\t' || text.charAt(length - 1) == ' ')) {
+            length--;
+        }
+        text.setLength(length);
+        if (length > 0 && text.charAt(length - 1) != '\n') {
+            text.append('\n');
+        }
+    }
+
+    private static boolean isElement(XMLStreamReader reader, String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    // La taille déclarée dans le zip n'est pas fiable: on compte les octets réellement décompressés
+    private static class BoundedInputStream extends FilterInputStream {
+        private final long limit;
+        private final String name;
+        private long count;
+
+        private BoundedInputStream(InputStream in, long limit, String name) {
+            super(in);
+            this.limit = limit;
+            this.name = name;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(long bytes) throws IOException {
+            count += bytes;
+            if (count > limit) {
+                throw new IOException("DOCX part " + name + " exceeds " + limit + " uncompressed bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.cvfilter.util;
+
+import com.example.cvfilter.exception.CvExtractionAbortedException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Budget temps/mémoire d'une extraction, vérifié de façon coopérative par les parseurs du thread courant
+public final class ExtractionBudget implements AutoCloseable {
+
+    private static final ThreadLocal<ExtractionBudget> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = allocationMXBean();
+
+    // Lire le compteur d'allocation à chaque opérateur PDF coûterait plus cher que l'extraction
+    private static final int MEMORY_CHECK_INTERVAL = 256;
+
+    private final Thread thread;
+    private final long deadlineNanos;
+    private final long maxAllocatedBytes;
+    private final long startAllocatedBytes;
+    private int checks;
+    private boolean closed;
+    private boolean interruptedByWatchdog;
+
+    private ExtractionBudget(long timeoutMs, long maxAllocatedBytes) {
+        this.thread = Thread.currentThread();
+        // Un délai <= 0 désactive la limite de temps
+        this.deadlineNanos = timeoutMs > 0 ? System.nanoTime() + timeoutMs * 1_000_000L : 0;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+        this.startAllocatedBytes = allocatedBytes();
+    }
+
+    public static ExtractionBudget begin(long timeoutMs, long maxAllocatedBytes) {
+        ExtractionBudget budget = new ExtractionBudget(timeoutMs, maxAllocatedBytes);
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    // Sans budget actif (appel direct du service, tests), la vérification ne fait rien
+    public static void checkCurrent() {
+        ExtractionBudget budget = CURRENT.get();
+        if (budget != null) {
+            budget.check();
+        }
+    }
+
+    public void check() {
+        if (isExpired() || thread.isInterrupted()) {
+            throw new CvExtractionAbortedException("Extraction exceeded its time budget");
+        }
+        if (maxAllocatedBytes > 0 && ++checks % MEMORY_CHECK_INTERVAL == 0 && allocated() > maxAllocatedBytes) {
+            throw new CvExtractionAbortedException("Extraction exceeded its memory budget (" + allocated() + " bytes allocated)");
+        }
+    }
+
+    // Octets alloués par le thread courant depuis son démarrage, -1 si la JVM ne le mesure pas
+    public static long threadAllocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public long allocated() {
+        long current = allocatedBytes();
+        return current < 0 || startAllocatedBytes < 0 ? 0 : current - startAllocatedBytes;
+    }
+
+    // Appelé par le watchdog: débloque les lectures interruptibles si le parseur ne vérifie plus le budget
+    public synchronized void interruptIfRunning() {
+        if (!closed) {
+            interruptedByWatchdog = true;
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+        synchronized (this) {
+            closed = true;
+            if (interruptedByWatchdog) {
+                // Le thread du pool sera réutilisé: on efface l'interruption posée par le watchdog
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        return Thread.currentThread() == thread ? threadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMXBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                && allocationBean.isThreadAllocatedMemorySupported()
+                && allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return allocationBean;
+        }
+        return null;
+    }
+}
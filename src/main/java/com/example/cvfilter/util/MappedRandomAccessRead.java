@@ -0,0 +1,166 @@
+package com.example.cvfilter.util;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Source PDFBox lue directement depuis un mapping mémoire du fichier: pas de copie dans le tas
+public class MappedRandomAccessRead implements RandomAccessRead {
+
+    // sun.misc.Unsafe.invokeCleaner (module jdk.unsupported): seul moyen de libérer un mapping avant le GC en Java 17
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            System.err.println("Memory-mapped PDF sources will be unmapped by the GC: " + e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedByteBuffer buffer;
+    private final long length;
+
+    public MappedRandomAccessRead(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be memory-mapped: " + file);
+            }
+            // Le mapping reste valide après la fermeture du canal
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkOpen();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int len) throws IOException {
+        checkOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, offset, count);
+        return count;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkOpen();
+        return buffer.position();
+    }
+
+    @Override
+    public void seek(long position) throws IOException {
+        checkOpen();
+        if (position < 0) {
+            throw new IOException("Invalid position " + position);
+        }
+        buffer.position((int) Math.min(position, length));
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkOpen();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        checkOpen();
+        return buffer.hasRemaining() ? buffer.get(buffer.position()) & 0xFF : -1;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        checkOpen();
+        buffer.position(buffer.position() - bytes);
+    }
+
+    @Override
+    public byte[] readFully(int len) throws IOException {
+        checkOpen();
+        if (len > buffer.remaining()) {
+            throw new IOException("Premature end of buffer reached");
+        }
+        byte[] bytes = new byte[len];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        checkOpen();
+        return !buffer.hasRemaining();
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkOpen();
+        return buffer.remaining();
+    }
+
+    // Libère le mapping tout de suite plutôt qu'au prochain GC: sous Windows le fichier reste verrouillé tant qu'il
+    // est mappé. PDFBox 2 copie les flux dans son ScratchFile pendant le parsing, le document ne relit donc plus
+    // la source après close(); checkOpen() refuse tout accès tardif avant qu'il ne touche la mémoire libérée.
+    @Override
+    public void close() {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        if (mapped != null) {
+            unmap(mapped);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer mapped) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, mapped);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Le mapping sera libéré par le GC
+            System.err.println("Could not unmap PDF source: " + e.getMessage());
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("RandomAccessRead already closed");
+        }
+    }
+}
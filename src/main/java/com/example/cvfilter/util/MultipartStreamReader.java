@@ -0,0 +1,232 @@
+package com.example.cvfilter.util;
+
+import com.example.cvfilter.exception.CvFileTooLargeException;
+import com.example.cvfilter.exception.InvalidMultipartRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lecture au fil de l'eau d'un corps multipart/form-data: la partie demandée est rendue comme un flux,
+// sans copie préalable en mémoire ou dans un fichier temporaire. Les autres parties sont lues à vide.
+public final class MultipartStreamReader {
+
+    // En-têtes et parties autres que le fichier: au-delà, la requête est refusée
+    public static final int MAX_OVERHEAD_BYTES = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=(?:\"([^\"]+)\"|([^;\\s]+))", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAME = Pattern.compile(";\\s*name=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FILENAME = Pattern.compile(";\\s*filename=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+
+    private final InputStream in;
+    // "\r\n--boundary": le corps est lu comme s'il commençait par "\r\n", le premier délimiteur a donc la même forme
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean eof;
+    private long overheadBytes;
+
+    private MultipartStreamReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+    }
+
+    // Partie de formulaire `fieldName`; son flux se termine au délimiteur suivant
+    public static Part findPart(InputStream body, String contentType, String fieldName) throws IOException {
+        if (contentType == null || !contentType.toLowerCase().startsWith("multipart/form-data")) {
+            throw new InvalidMultipartRequestException("Expected a multipart/form-data request");
+        }
+        Matcher matcher = BOUNDARY.matcher(contentType);
+        if (!matcher.find()) {
+            throw new InvalidMultipartRequestException("Missing multipart boundary");
+        }
+        String boundary = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+        return new MultipartStreamReader(body, boundary).findPart(fieldName);
+    }
+
+    private Part findPart(String fieldName) throws IOException {
+        // Préambule avant le premier délimiteur
+        skipPart();
+        while (nextPart()) {
+            String disposition = readHeaders();
+            Matcher name = NAME.matcher(disposition);
+            if (name.find() && name.group(1).equals(fieldName)) {
+                Matcher filename = FILENAME.matcher(disposition);
+                return new Part(filename.find() ? filename.group(1) : null, new PartInputStream());
+            }
+            skipPart();
+        }
+        throw new InvalidMultipartRequestException("Missing multipart part: " + fieldName);
+    }
+
+    // Après un délimiteur: "--" termine le corps, "\r\n" annonce une partie
+    private boolean nextPart() throws IOException {
+        if (!fill(2)) {
+            throw new InvalidMultipartRequestException("Truncated multipart request");
+        }
+        byte first = buffer[position];
+        byte second = buffer[position + 1];
+        position += 2;
+        if (first == '-' && second == '-') {
+            return false;
+        }
+        if (first != '\r' || second != '\n') {
+            throw new InvalidMultipartRequestException("Malformed multipart delimiter");
+        }
+        return true;
+    }
+
+    // Retourne l'en-tête Content-Disposition de la partie (les autres en-têtes sont ignorés)
+    private String readHeaders() throws IOException {
+        String disposition = "";
+        int headerBytes = 0;
+        while (true) {
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                if (!fill(1)) {
+                    throw new InvalidMultipartRequestException("Truncated multipart headers");
+                }
+                byte b = buffer[position++];
+                countOverhead(1);
+                if (++headerBytes > MAX_HEADER_BYTES) {
+                    throw new InvalidMultipartRequestException("Multipart headers too large");
+                }
+                if (b == '\n') {
+                    break;
+                }
+                if (b != '\r') {
+                    line.append((char) (b & 0xff));
+                }
+            }
+            if (line.length() == 0) {
+                return disposition;
+            }
+            String header = line.toString();
+            if (header.regionMatches(true, 0, "Content-Disposition:", 0, 20)) {
+                // Noms de fichiers UTF-8 envoyés tels quels par les navigateurs
+                disposition = new String(header.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private void skipPart() throws IOException {
+        byte[] discard = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = readPart(discard, 0, discard.length)) != -1) {
+            countOverhead(read);
+        }
+    }
+
+    // Lit la partie courante jusqu'au délimiteur (consommé), -1 une fois atteint
+    private int readPart(byte[] target, int offset, int length) throws IOException {
+        fill(delimiter.length);
+        int available = limit - position;
+        int found = indexOfDelimiter();
+        if (found == position) {
+            position += delimiter.length;
+            return -1;
+        }
+        if (found < 0 && eof && available < delimiter.length) {
+            throw new InvalidMultipartRequestException("Truncated multipart request");
+        }
+        // Sans délimiteur dans le tampon, ses dernières positions peuvent en contenir le début
+        int end = found >= 0 ? found : limit - delimiter.length + 1;
+        int count = Math.min(length, end - position);
+        System.arraycopy(buffer, position, target, offset, count);
+        position += count;
+        return count;
+    }
+
+    private int indexOfDelimiter() {
+        outer:
+        for (int i = position; i <= limit - delimiter.length; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Garantit `count` octets disponibles dans le tampon, sauf fin de flux
+    private boolean fill(int count) throws IOException {
+        if (limit - position >= count) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit < count && !eof) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+        return limit - position >= count;
+    }
+
+    private void countOverhead(int count) {
+        overheadBytes += count;
+        if (overheadBytes > MAX_OVERHEAD_BYTES) {
+            throw new CvFileTooLargeException("Multipart request has more than " + MAX_OVERHEAD_BYTES + " bytes besides the CV file");
+        }
+    }
+
+    private final class PartInputStream extends InputStream {
+        private boolean finished;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            int read = readPart(target, offset, length);
+            if (read == -1) {
+                finished = true;
+            }
+            return read;
+        }
+    }
+
+    public static final class Part {
+        private final String filename;
+        private final InputStream inputStream;
+
+        private Part(String filename, InputStream inputStream) {
+            this.filename = filename;
+            this.inputStream = inputStream;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+    }
+}
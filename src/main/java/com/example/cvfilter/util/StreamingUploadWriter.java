@@ -0,0 +1,186 @@
+package com.example.cvfilter.util;
+
+import com.example.cvfilter.exception.CvFileTooLargeException;
+import com.example.cvfilter.exception.UnsupportedCvFileTypeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+// Écrit un flux d'upload sur disque en un seul passage: hash SHA-256, détection du type et contrôle de taille
+// sont faits au fil de l'eau. Rien n'est écrit tant que le début du fichier n'a pas été reconnu.
+public final class StreamingUploadWriter {
+
+    public enum CvFileType {
+        PDF(".pdf"), DOCX(".docx"), TXT(".txt");
+
+        private final String extension;
+
+        CvFileType(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Le standard PDF tolère des octets parasites avant l'en-tête "%PDF-"
+    private static final int SNIFF_BYTES = 1024;
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+
+    private StreamingUploadWriter() {
+    }
+
+    // Taille annoncée par le client (-1 si inconnue): un fichier trop gros est refusé avant toute lecture
+    public static void checkDeclaredSize(long declaredBytes, long maxBytes) {
+        if (declaredBytes > maxBytes) {
+            throw new CvFileTooLargeException("CV file too large: " + declaredBytes + " bytes (max " + maxBytes + ")");
+        }
+    }
+
+    // Le fichier est écrit à côté de la cible (".part", ignoré par les scans) puis renommé atomiquement.
+    // La cible reçoit l'extension du type détecté, pas celle annoncée par le client.
+    public static StoredUpload write(InputStream in, Path directory, String baseName, long maxBytes) throws IOException {
+        MessageDigest digest = ContentHashUtil.newSha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        ReadableByteChannel source = Channels.newChannel(in);
+
+        // Lecture du début du fichier avant de créer quoi que ce soit sur disque
+        while (buffer.position() < SNIFF_BYTES && source.read(buffer) != -1) {
+            // Remplissage du tampon
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            throw new UnsupportedCvFileTypeException("CV file is empty");
+        }
+        CvFileType type = sniff(buffer);
+
+        Path target = directory.resolve(baseName + type.getExtension());
+        Path part = directory.resolve(baseName + type.getExtension() + ".part");
+        long size = 0;
+
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (true) {
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new CvFileTooLargeException("CV file too large: more than " + maxBytes + " bytes");
+                }
+
+                // Le hash est mis à jour depuis une vue du tampon, puis le même tampon est écrit dans le fichier
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                buffer.clear();
+                if (source.read(buffer) == -1) {
+                    break;
+                }
+                buffer.flip();
+            }
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        return new StoredUpload(target, size, ContentHashUtil.toHex(digest.digest()), type);
+    }
+
+    // Type d'un fichier déjà sur disque, d'après ses premiers octets
+    public static CvFileType sniff(Path file) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(SNIFF_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (head.hasRemaining() && channel.read(head) != -1) {
+                // Remplissage du tampon
+            }
+        }
+        head.flip();
+        if (!head.hasRemaining()) {
+            throw new UnsupportedCvFileTypeException("CV file is empty");
+        }
+        return sniff(head);
+    }
+
+    static CvFileType sniff(ByteBuffer head) {
+        if (startsWith(head, ZIP_MAGIC)) {
+            // Un DOCX est une archive ZIP: son contenu est vérifié à l'extraction
+            return CvFileType.DOCX;
+        }
+        if (indexOf(head, PDF_MAGIC) >= 0) {
+            return CvFileType.PDF;
+        }
+        if (looksLikeText(head)) {
+            return CvFileType.TXT;
+        }
+        throw new UnsupportedCvFileTypeException("Unsupported CV file type: only PDF, DOCX and TXT files are accepted");
+    }
+
+    private static boolean startsWith(ByteBuffer head, byte[] magic) {
+        if (head.remaining() < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (head.get(head.position() + i) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer head, byte[] magic) {
+        int limit = Math.min(head.limit(), head.position() + SNIFF_BYTES) - magic.length;
+        outer:
+        for (int i = head.position(); i <= limit; i++) {
+            for (int j = 0; j < magic.length; j++) {
+                if (head.get(i + j) != magic[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Texte: pas d'octet nul ni de caractère de contrôle hors tabulations et fins de ligne
+    private static boolean looksLikeText(ByteBuffer head) {
+        for (int i = head.position(); i < head.limit(); i++) {
+            int b = head.get(i) & 0xFF;
+            if (b < 0x20 && b != '\t' && b != '\n' && b != '\r' && b != '\f') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static final class StoredUpload {
+        private final Path path;
+        private final long size;
+        private final String contentHash;
+        private final CvFileType type;
+
+        private StoredUpload(Path path, long size, String contentHash, CvFileType type) {
+            this.path = path;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.type = type;
+        }
+
+        public Path getPath() { return path; }
+        public long getSize() { return size; }
+        public String getContentHash() { return contentHash; }
+        public CvFileType getType() { return type; }
+    }
+}
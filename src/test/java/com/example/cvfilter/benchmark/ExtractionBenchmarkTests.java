@@ -0,0 +1,255 @@
+package com.example.cvfilter.benchmark;
+
+import com.example.cvfilter.benchmark.SyntheticCvGenerator.Format;
+import com.example.cvfilter.dao.CvManifestDao;
+import com.example.cvfilter.dao.entity.CvExtractionStatus;
+import com.example.cvfilter.dao.entity.CvManifestEntry;
+import com.example.cvfilter.service.*;
+import com.example.cvfilter.service.impl.IngestionPriorityServiceInterface;
+import com.example.cvfilter.util.ExtractionBudget;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mesure de débit de l'extraction sur un corpus synthétique, désactivée par défaut:
+// mvn test -Dtest=ExtractionBenchmarkTests -Dcv.benchmark=true [-Dcv.benchmark.documents=200 -Dcv.benchmark.pages=2]
+@EnabledIfSystemProperty(named = "cv.benchmark", matches = "true")
+class ExtractionBenchmarkTests {
+
+    private static final int DOCUMENTS = Integer.getInteger("cv.benchmark.documents", 200);
+    private static final int PAGES = Integer.getInteger("cv.benchmark.pages", 2);
+    private static final int WARMUP = Math.min(20, DOCUMENTS);
+    private static final long SEED = 42;
+
+    @TempDir
+    static Path workDir;
+
+    private static CvExtractionService extractionService;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        SkillDictionary skillDictionary = new SkillDictionary(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(skillDictionary, "dictionaryLocation", "classpath:skills/skills.csv");
+        skillDictionary.init();
+
+        // Sans cache ni stockage du texte: chaque document est réellement parsé
+        ExtractionResultCache extractionResultCache = new ExtractionResultCache();
+        ReflectionTestUtils.setField(extractionResultCache, "enabled", false);
+        CvTextStore cvTextStore = new CvTextStore();
+        ReflectionTestUtils.setField(cvTextStore, "enabled", false);
+
+        extractionService = new CvExtractionService(skillDictionary, extractionResultCache, cvTextStore);
+        ReflectionTestUtils.setField(extractionService, "extractionTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(extractionService, "maxAllocatedBytes", 512L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractionService, "pdfMaxMainMemoryBytes", 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractionService, "pdfMemoryMapped", true);
+        ReflectionTestUtils.setField(extractionService, "docxStreaming", true);
+        ReflectionTestUtils.setField(extractionService, "docxMaxPartBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractionService, "docxMaxChars", 1_000_000);
+        extractionService.init();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        extractionService.shutdown();
+    }
+
+    @Test
+    void extractionServicePdf() throws IOException {
+        benchmarkExtraction(Format.PDF);
+    }
+
+    @Test
+    void extractionServiceDocx() throws IOException {
+        benchmarkExtraction(Format.DOCX);
+    }
+
+    @Test
+    void processingPipelinePdf() throws IOException {
+        benchmarkPipeline(Format.PDF);
+    }
+
+    @Test
+    void processingPipelineDocx() throws IOException {
+        benchmarkPipeline(Format.DOCX);
+    }
+
+    // Appels séquentiels à extractCvInfo: latence par document et allocations
+    private void benchmarkExtraction(Format format) throws IOException {
+        List<Path> files = new SyntheticCvGenerator(SEED)
+                .generateCorpus(workDir.resolve("extraction-" + format.getExtension()), format, DOCUMENTS, PAGES);
+
+        for (Path file : files.subList(0, WARMUP)) {
+            extractionService.extractCvInfo(file.toFile(), 1L, 1L);
+        }
+
+        resetHeapPeak();
+        long[] latencies = new long[files.size()];
+        long allocatedBefore = ExtractionBudget.threadAllocatedBytes();
+        long start = System.nanoTime();
+        int withEmail = 0;
+        for (int i = 0; i < files.size(); i++) {
+            long documentStart = System.nanoTime();
+            if (extractionService.extractCvInfo(files.get(i).toFile(), 1L, 1L).getEmail() != null) {
+                withEmail++;
+            }
+            latencies[i] = System.nanoTime() - documentStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = ExtractionBudget.threadAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(latencies);
+        System.out.printf("[benchmark] extractCvInfo %s: %d docs x %d pages, %.1f docs/s, p50 %.1f ms, p99 %.1f ms, "
+                        + "%.1f MB allocated/doc, heap peak %d MB%n",
+                format, files.size(), PAGES, files.size() / (elapsed / 1e9),
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                allocated / (double) files.size() / 1_048_576, heapPeak() / 1_048_576);
+
+        assertEquals(files.size(), withEmail, "Every synthetic CV carries an email address");
+    }
+
+    // Scan complet de CvProcessingService: pool de workers, manifeste, écriture CSV et rechargement du cache
+    private void benchmarkPipeline(Format format) throws IOException {
+        Path storage = workDir.resolve("pipeline-" + format.getExtension());
+        new SyntheticCvGenerator(SEED).generateCorpus(storage.resolve("job_1"), format, DOCUMENTS, PAGES);
+
+        CvInfoCache cvInfoCache = new CvInfoCache();
+        ReflectionTestUtils.setField(cvInfoCache, "extractedInfoFile", storage.resolve("cv_extracted_info.csv").toString());
+        ReflectionTestUtils.setField(cvInfoCache, "maxBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(cvInfoCache, "watchEnabled", false);
+        cvInfoCache.init();
+
+        CvExtractionWorkerPool workerPool = new CvExtractionWorkerPool();
+        ReflectionTestUtils.setField(workerPool, "queueCapacity", 256);
+        workerPool.init();
+
+        CvProcessingService processingService = new CvProcessingService(extractionService, cvInfoCache, workerPool,
+                new InMemoryCvManifestDao(), new FixedPriorityService());
+        ReflectionTestUtils.setField(processingService, "storagePath", storage.toString());
+        ReflectionTestUtils.setField(processingService, "extractedInfoFile", storage.resolve("cv_extracted_info.csv").toString());
+        ReflectionTestUtils.setField(processingService, "maxExtractionFailures", 3);
+        processingService.init();
+
+        try {
+            resetHeapPeak();
+            long start = System.nanoTime();
+            processingService.processCvsAndExtractInfo();
+            long elapsed = System.nanoTime() - start;
+
+            int extracted = cvInfoCache.getCvsForJobOffer(1L).size();
+            System.out.printf("[benchmark] CvProcessingService %s: %d docs x %d pages, %.1f docs/s, %.1f ms total, heap peak %d MB%n",
+                    format, extracted, PAGES, extracted / (elapsed / 1e9), elapsed / 1e6, heapPeak() / 1_048_576);
+
+            assertTrue(extracted >= DOCUMENTS * 9 / 10, "Pipeline extracted only " + extracted + "/" + DOCUMENTS + " CVs");
+        } finally {
+            processingService.shutdown();
+            workerPool.shutdown();
+            cvInfoCache.shutdown();
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void resetHeapPeak() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // Somme des pics par zone mémoire: majorant du pic réel du tas
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static class FixedPriorityService implements IngestionPriorityServiceInterface {
+        @Override
+        public int getPriority(Long jobOfferId) {
+            return CvExtractionWorkerPool.DEFAULT_PRIORITY;
+        }
+
+        @Override
+        public void recordRankingRequest(Long jobOfferId) {
+        }
+
+        @Override
+        public void boost(Long jobOfferId) {
+        }
+    }
+
+    private static class InMemoryCvManifestDao implements CvManifestDao {
+        private final Map<Long, CvManifestEntry> entries = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public CvManifestEntry save(CvManifestEntry entry) {
+            if (entry.getId() == null) {
+                entry.setId(ids.incrementAndGet());
+            }
+            entries.put(entry.getId(), entry);
+            return entry;
+        }
+
+        @Override
+        public List<CvManifestEntry> saveAll(List<CvManifestEntry> toSave) {
+            toSave.forEach(this::save);
+            return toSave;
+        }
+
+        @Override
+        public List<CvManifestEntry> findByJobOfferId(Long jobOfferId) {
+            return entries.values().stream().filter(e -> jobOfferId.equals(e.getJobOfferId())).toList();
+        }
+
+        @Override
+        public Optional<CvManifestEntry> findByPath(String path, Long userId, Long jobOfferId) {
+            return entries.values().stream()
+                    .filter(e -> path.equals(e.getPath()) && userId.equals(e.getUserId()) && jobOfferId.equals(e.getJobOfferId()))
+                    .findFirst();
+        }
+
+        @Override
+        public Optional<CvManifestEntry> findByTrackingId(String trackingId) {
+            return entries.values().stream().filter(e -> trackingId.equals(e.getTrackingId())).findFirst();
+        }
+
+        @Override
+        public List<CvManifestEntry> findByContentHash(String contentHash, Long userId, Long jobOfferId) {
+            return entries.values().stream()
+                    .filter(e -> contentHash.equals(e.getContentHash()) && userId.equals(e.getUserId()) && jobOfferId.equals(e.getJobOfferId()))
+                    .toList();
+        }
+
+        @Override
+        public List<CvManifestEntry> findByStatusIn(Collection<CvExtractionStatus> statuses) {
+            return entries.values().stream().filter(e -> statuses.contains(e.getStatus())).toList();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.cvfilter.benchmark;
+
+import com.example.cvfilter.config.JwtKeyManager;
+import com.example.cvfilter.config.JwtUtils;
+import com.example.cvfilter.dao.UserDao;
+import com.example.cvfilter.dao.entity.Role;
+import com.example.cvfilter.dao.entity.User;
+import com.example.cvfilter.dto.JwtResponse;
+import com.example.cvfilter.exception.AuthenticationBusyException;
+import com.example.cvfilter.service.AuthService;
+import com.example.cvfilter.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Rafale de connexions face à des appels d'API sur un pool "Tomcat" de taille fixe, désactivée par défaut:
+// mvn test -Dtest=LoginBenchmarkTests -Dcv.benchmark=true [-Dcv.benchmark.logins=64 -Dcv.benchmark.bcrypt-cost=10]
+@EnabledIfSystemProperty(named = "cv.benchmark", matches = "true")
+class LoginBenchmarkTests {
+
+    private static final int LOGINS = Integer.getInteger("cv.benchmark.logins", 64);
+    private static final int COST = Integer.getInteger("cv.benchmark.bcrypt-cost", 10);
+    private static final int SERVLET_THREADS = Integer.getInteger("cv.benchmark.servlet-threads", 8);
+    private static final int API_CALLS = 200;
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @TempDir
+    static Path workDir;
+
+    private static PasswordHashingService passwordHashingService;
+    private static AuthService authService;
+    private static Map<String, User> users;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        JwtKeyManager keyManager = new JwtKeyManager();
+        ReflectionTestUtils.setField(keyManager, "keysFile", workDir.resolve("jwt-keys.properties").toString());
+        keyManager.init();
+
+        passwordHashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(passwordHashingService, "cost", COST);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", LOGINS);
+        ReflectionTestUtils.setField(passwordHashingService, "retryAfterSeconds", 1L);
+        passwordHashingService.init();
+
+        String hash = passwordHashingService.encode(PASSWORD);
+        users = new ConcurrentHashMap<>();
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findByEmail(anyString())).thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<String>getArgument(0))));
+        when(userDao.loadForUpdate(any())).thenAnswer(invocation -> users.values().stream()
+                .filter(user -> user.getId().equals(invocation.getArgument(0))).findFirst());
+        when(userDao.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        for (int i = 0; i < LOGINS; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword(hash);
+            user.setRole(Role.USER);
+            users.put(user.getEmail(), user);
+        }
+
+        authService = new AuthService(userDao, new JwtUtils(keyManager, 1000), passwordHashingService);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void blockingLogin() throws Exception {
+        benchmark(false);
+    }
+
+    @Test
+    void offloadedLogin() throws Exception {
+        benchmark(true);
+    }
+
+    @Test
+    void rehashOnLoginWhenCostChanges() {
+        User user = users.get("user0@example.com");
+        user.setPassword(new BCryptPasswordEncoder(COST - 1).encode(PASSWORD));
+
+        authService.login(user.getEmail(), PASSWORD);
+
+        assertTrue(user.getPassword().startsWith(String.format("$2a$%02d$", COST)), "Hash upgraded to the configured cost");
+        assertTrue(passwordHashingService.matches(PASSWORD, user.getPassword()));
+    }
+
+    // Les connexions et les appels d'API partagent le pool de servlets; on mesure la latence des appels d'API
+    private void benchmark(boolean offloaded) throws Exception {
+        ExecutorService servletPool = Executors.newFixedThreadPool(SERVLET_THREADS);
+        try {
+            List<CompletableFuture<JwtResponse>> logins = new ArrayList<>();
+            AtomicInteger rejected = new AtomicInteger();
+            long start = System.nanoTime();
+
+            for (User user : users.values()) {
+                CompletableFuture<JwtResponse> login = new CompletableFuture<>();
+                servletPool.execute(() -> {
+                    try {
+                        if (offloaded) {
+                            authService.loginAsync(user.getEmail(), PASSWORD).whenComplete((response, error) -> {
+                                if (error != null) {
+                                    login.completeExceptionally(error);
+                                } else {
+                                    login.complete(response);
+                                }
+                            });
+                        } else {
+                            login.complete(authService.login(user.getEmail(), PASSWORD));
+                        }
+                    } catch (AuthenticationBusyException e) {
+                        rejected.incrementAndGet();
+                        login.complete(null);
+                    } catch (RuntimeException e) {
+                        login.completeExceptionally(e);
+                    }
+                });
+                logins.add(login);
+            }
+
+            // Appels d'API légers pendant la rafale
+            long[] apiLatencies = new long[API_CALLS];
+            List<Future<?>> apiCalls = new ArrayList<>();
+            for (int i = 0; i < API_CALLS; i++) {
+                int call = i;
+                long submitted = System.nanoTime();
+                apiCalls.add(servletPool.submit(() -> apiLatencies[call] = System.nanoTime() - submitted));
+                Thread.sleep(2);
+            }
+            for (Future<?> apiCall : apiCalls) {
+                apiCall.get();
+            }
+
+            int succeeded = 0;
+            for (CompletableFuture<JwtResponse> login : logins) {
+                if (login.get(5, TimeUnit.MINUTES) != null) {
+                    succeeded++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(apiLatencies);
+            System.out.printf("[benchmark] login %s: %d logins (cost %d, %d rejected) in %.1f s, %.1f logins/s, "
+                            + "API p50 %.1f ms, p99 %.1f ms on %d servlet threads%n",
+                    offloaded ? "offloaded" : "blocking", succeeded, COST, rejected.get(), elapsed / 1e9,
+                    succeeded / (elapsed / 1e9), percentile(apiLatencies, 0.50) / 1e6,
+                    percentile(apiLatencies, 0.99) / 1e6, SERVLET_THREADS);
+
+            assertEquals(LOGINS, succeeded + rejected.get());
+        } finally {
+            servletPool.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.cvfilter.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Génère des CVs PDF et DOCX reproductibles (même graine, mêmes documents) pour les mesures de débit
+public class SyntheticCvGenerator {
+
+    public enum Format {
+        PDF("pdf"), DOCX("docx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String[] FIRST_NAMES = {"Amine", "Sarra", "Youssef", "Meriem", "Karim", "Ines", "Hedi", "Camille", "Lucas", "Emma"};
+    private static final String[] LAST_NAMES = {"Ben Salah", "Trabelsi", "Gharbi", "Jaziri", "Martin", "Bernard", "Dubois", "Haddad", "Mansour", "Petit"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.fr", "outlook.com", "esprit.tn", "etudiant.univ.fr"};
+    private static final String[] SKILLS = {"Java", "Spring Boot", "Python", "Docker", "Kubernetes", "React", "Angular", "PostgreSQL",
+            "MongoDB", "Git", "Jenkins", "AWS", "TypeScript", "Node.js", "Hibernate", "Scrum", "Power BI", "Excel", "Linux", "TensorFlow"};
+    private static final String[] COMPANIES = {"Vermeg", "Sofrecom", "Talan", "Capgemini", "Sopra Steria", "Orange", "Ooredoo", "Telnet"};
+    private static final String[] ROLES = {"Développeur Full Stack", "Ingénieur logiciel", "Data Analyst", "Stagiaire DevOps", "Chef de projet junior"};
+    private static final String[] SCHOOLS = {"ESPRIT", "ENSI", "INSAT", "Université de Tunis El Manar", "Université Paris-Saclay"};
+    private static final String[] DEGREES = {"Diplôme d'ingénieur en informatique", "Master en génie logiciel", "Licence en informatique", "BTS SIO"};
+    private static final String[] WORDS = {"conception", "développement", "application", "web", "mobile", "équipe", "agile", "client",
+            "architecture", "microservices", "tests", "unitaires", "déploiement", "continu", "analyse", "besoins", "migration",
+            "base", "données", "performance", "optimisation", "maintenance", "documentation", "réalisation", "plateforme", "gestion"};
+
+    private static final float MARGIN = 50;
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 13;
+    private static final int LINE_CHARS = 95;
+
+    private final Random random;
+
+    public SyntheticCvGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // Documents nommés comme les uploads ("cv_user_<id>_<horodatage>.<ext>") pour passer par le pipeline réel
+    public List<Path> generateCorpus(Path directory, Format format, int count, int pages) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = directory.resolve("synthetic-cv_user_" + (i + 1) + "_" + (1_700_000_000_000L + i) + "." + format.getExtension());
+            List<String> lines = generateLines(pages);
+            if (format == Format.PDF) {
+                writePdf(file, lines);
+            } else {
+                writeDocx(file, lines);
+            }
+            files.add(file);
+        }
+        return files;
+    }
+
+    // Contenu d'un CV: en-tête de contact puis sections, jusqu'à remplir le nombre de pages demandé
+    List<String> generateLines(int pages) {
+        int targetLines = Math.max(1, pages) * linesPerPage();
+        List<String> lines = new ArrayList<>();
+
+        String firstName = pick(FIRST_NAMES);
+        String lastName = pick(LAST_NAMES);
+        lines.add(firstName + " " + lastName);
+        lines.add(pick(ROLES));
+        lines.add("Email: " + (firstName + "." + lastName).toLowerCase().replace(' ', '-') + "@" + pick(DOMAINS));
+        lines.add("Tél: " + (random.nextBoolean() ? "+216 " + (20 + random.nextInt(80)) + " " + digits(3) + " " + digits(3)
+                : "06 " + digits(2) + " " + digits(2) + " " + digits(2) + " " + digits(2)));
+        lines.add("linkedin.com/in/" + firstName.toLowerCase() + "-" + random.nextInt(10_000));
+        lines.add("");
+
+        lines.add("PROFIL");
+        lines.addAll(wrap(sentence(40)));
+        lines.add("");
+
+        lines.add("COMPÉTENCES");
+        StringBuilder skills = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            skills.append(i > 0 ? ", " : "").append(pick(SKILLS));
+        }
+        lines.addAll(wrap(skills.toString()));
+        lines.add("");
+
+        lines.add("EXPÉRIENCE PROFESSIONNELLE");
+        int year = 2024;
+        while (lines.size() < targetLines - 10) {
+            int duration = 1 + random.nextInt(3);
+            lines.add(pick(ROLES) + " - " + pick(COMPANIES) + " (" + (year - duration) + " - " + year + ")");
+            lines.addAll(wrap(sentence(30 + random.nextInt(50))));
+            lines.add("");
+            year -= duration;
+        }
+
+        lines.add("FORMATION");
+        lines.add(pick(DEGREES) + " - " + pick(SCHOOLS) + " (" + (year - 3) + " - " + year + ")");
+        lines.add("");
+        lines.add("LANGUES");
+        lines.add("Français, Anglais, Arabe");
+        return lines;
+    }
+
+    private void writePdf(Path file, List<String> lines) throws IOException {
+        PDFont font = PDType1Font.HELVETICA;
+        try (PDDocument document = new PDDocument()) {
+            int perPage = linesPerPage();
+            for (int from = 0; from < lines.size(); from += perPage) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, PDRectangle.A4.getHeight() - MARGIN);
+                    for (String line : lines.subList(from, Math.min(lines.size(), from + perPage))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+
+    private void writeDocx(Path file, List<String> lines) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            for (String line : lines) {
+                XWPFParagraph paragraph = document.createParagraph();
+                XWPFRun run = paragraph.createRun();
+                run.setText(line);
+                // Titres de section en gras, comme dans les modèles de CV courants
+                if (!line.isEmpty() && line.equals(line.toUpperCase()) && line.chars().anyMatch(Character::isLetter)) {
+                    run.setBold(true);
+                }
+            }
+            document.write(out);
+        }
+    }
+
+    private static int linesPerPage() {
+        return (int) ((PDRectangle.A4.getHeight() - 2 * MARGIN) / LEADING);
+    }
+
+    private List<String> wrap(String text) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            if (line.length() + word.length() + 1 > LINE_CHARS) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            line.append(line.length() > 0 ? " " : "").append(word);
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = random.nextInt(8) == 0 ? pick(SKILLS) : pick(WORDS);
+            sentence.append(i > 0 ? " " : "").append(word);
+        }
+        return sentence.append('.').toString();
+    }
+
+    private String digits(int count) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            digits.append(random.nextInt(10));
+        }
+        return digits.toString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.cvfilter.dao.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TtlCacheTests {
+
+    @Test
+    void loadsOnceUntilExpiry() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(true, 50, 10);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, String> loader = key -> {
+            loads.incrementAndGet();
+            return key.toUpperCase();
+        };
+
+        assertEquals("A", cache.get("a", loader));
+        assertEquals("A", cache.get("a", loader));
+        assertEquals(1, loads.get());
+
+        Thread.sleep(80);
+        assertEquals("A", cache.get("a", loader));
+        assertEquals(2, loads.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsLoadedValue() {
+        TtlCache<String, String> cache = new TtlCache<>(true, 60_000, 10);
+
+        String loaded = cache.get("a", key -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals("fresh", cache.get("a", key -> "fresh"));
+        assertEquals("fresh", cache.get("a", key -> "other"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        TtlCache<Integer, Integer> cache = new TtlCache<>(true, 60_000, 2);
+        cache.get(1, key -> key);
+        cache.get(2, key -> key);
+        cache.get(1, key -> key);
+        cache.get(3, key -> key);
+
+        assertEquals(2, cache.stats().getSize());
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(1, cache.get(1, key -> -key));
+        assertEquals(-2, cache.get(2, key -> -key));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.cvfilter.util;
+
+import com.example.cvfilter.util.ContactScanner.Contacts;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactScannerTests {
+
+    private static final Pattern VALID_EMAIL =
+            Pattern.compile("[a-z0-9]([a-z0-9._%+-]*[a-z0-9])?@[a-z0-9]([a-z0-9.-]*[a-z0-9])?\\.[a-z]{2,}");
+
+    @Test
+    void extractsContactsFromTypicalHeader() {
+        Contacts contacts = ContactScanner.scan("Amine Ben Salah Ingénieur logiciel Tunis, 2019 - 2022 "
+                + "Tél: +216 22 123 456 Email: Amine.BenSalah@Gmail.com "
+                + "linkedin.com/in/amine-bensalah github.com/aminebs/ Expérience ...");
+
+        assertEquals("amine.bensalah@gmail.com", contacts.getEmail());
+        assertEquals("+216 22 123 456", contacts.getPhone());
+        assertEquals("https://www.linkedin.com/in/amine-bensalah", contacts.getLinkedinUrl());
+        assertEquals("https://github.com/aminebs", contacts.getGithubUrl());
+    }
+
+    @Test
+    void recognisesPhoneFormats() {
+        assertEquals("06 12 34 56 78", ContactScanner.scan("Tel 06 12 34 56 78").getPhone());
+        assertEquals("+33 6 12 34 56 78", ContactScanner.scan("Tel +33 6 12 34 56 78.").getPhone());
+        assertEquals("06.12.34.56.78", ContactScanner.scan("06.12.34.56.78").getPhone());
+        assertEquals("98765432", ContactScanner.scan("GSM: 98765432").getPhone());
+        assertEquals("+1 (415) 555-0132", ContactScanner.scan("Phone +1 (415) 555-0132").getPhone());
+        // Un numéro au format reconnu l'emporte sur une suite de chiffres quelconque rencontrée avant
+        assertEquals("0612345678", ContactScanner.scan("Matricule 123456789 tel 0612345678").getPhone());
+    }
+
+    @Test
+    void ignoresDateRangesAndShortNumbers() {
+        assertNull(ContactScanner.scan("Stage 2019-2022 puis 2022 2023, 75001 Paris").getPhone());
+    }
+
+    // Le numéro qui suit une période ne doit pas être collé à ses années
+    @Test
+    void findsPhoneRightAfterDateRange() {
+        assertEquals("+33 6 12 34 56 78", ContactScanner.scan("2019-2023 +33 6 12 34 56 78").getPhone());
+        assertEquals("06 12 34 56 78", ContactScanner.scan("Stage 2019 - 2023 06 12 34 56 78").getPhone());
+        assertEquals("22 123 456", ContactScanner.scan("Tunis 2019 - 2022 22 123 456").getPhone());
+        assertEquals("0612345678", ContactScanner.scan("01/2019 - 2023 0612345678").getPhone());
+    }
+
+    @Test
+    void trimsEmailToValidDomain() {
+        assertEquals("jane@example.com", ContactScanner.scan("(jane@example.com).").getEmail());
+        assertEquals("jane@mail.example.org", ContactScanner.scan("jane@mail.example.org.123").getEmail());
+        assertNull(ContactScanner.scan("user@localhost et @handle").getEmail());
+    }
+
+    @Test
+    void randomInputsNeverFailAndOnlyYieldValidFields() {
+        Random random = new Random(42);
+        String alphabet = "aZ09@@..--++  ()_%/:linkedin.com/github.com/";
+        for (int iteration = 0; iteration < 20_000; iteration++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            Contacts contacts = ContactScanner.scan(text.toString());
+            if (contacts.getEmail() != null) {
+                assertTrue(VALID_EMAIL.matcher(contacts.getEmail()).matches(), contacts.getEmail());
+            }
+            if (contacts.getPhone() != null) {
+                long digits = contacts.getPhone().chars().filter(Character::isDigit).count();
+                assertTrue(digits >= 8 && digits <= 15, contacts.getPhone());
+            }
+        }
+    }
+
+    @Test
+    void adversarialInputsStayLinear() {
+        int size = 2_000_000;
+        String[] inputs = {
+                "1 ".repeat(size / 2),
+                "1-(".repeat(size / 3),
+                "a@".repeat(size / 2),
+                "a.".repeat(size / 2) + "@",
+                "a@" + "b.".repeat(size / 2) + "1",
+                "linkedin.com/".repeat(size / 13),
+                "+".repeat(size)
+        };
+
+        // Les regex d'origine mettent plusieurs secondes sur certaines de ces entrées
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (String input : inputs) {
+                ContactScanner.scan(input);
+            }
+        });
+    }
+}
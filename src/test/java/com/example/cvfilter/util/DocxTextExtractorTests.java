@@ -0,0 +1,127 @@
+package com.example.cvfilter.util;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocxTextExtractorTests {
+
+    private static final int ROUNDS = 5;
+
+    private final DocxTextExtractor extractor = new DocxTextExtractor(64L * 1024 * 1024, 1_000_000);
+
+    @Test
+    void coversEveryBodyParagraphExtractedByXwpf() throws IOException {
+        List<File> samples = sampleDocuments();
+
+        for (File sample : samples) {
+            String streamed = normalize(extractor.extract(sample));
+            for (String paragraph : xwpfParagraphs(sample)) {
+                assertTrue(streamed.contains(normalize(paragraph)),
+                        sample.getName() + " is missing paragraph: " + paragraph);
+            }
+        }
+    }
+
+    // Les taquets définis dans les propriétés du paragraphe ne sont pas du texte
+    @Test
+    void emitsTabsOnlyInsideRuns(@TempDir Path dir) throws IOException {
+        Path docx = dir.resolve("tabs.docx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(docx))) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(("<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+                    + "<w:p><w:pPr><w:tabs><w:tab w:val=\"left\" w:pos=\"2880\"/><w:tab w:val=\"right\" w:pos=\"9000\"/></w:tabs></w:pPr>"
+                    + "<w:r><w:t>2019</w:t></w:r><w:r><w:tab/><w:t>Développeur</w:t></w:r></w:p>"
+                    + "</w:body></w:document>").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        assertEquals("2019\tDéveloppeur\n", extractor.extract(docx.toFile()));
+    }
+
+    // Comparaison de débit avec l'extraction XWPF, affichée à titre indicatif
+    @Test
+    void comparesThroughputWithXwpf() throws IOException {
+        List<File> samples = sampleDocuments();
+        long bytes = samples.stream().mapToLong(File::length).sum() * ROUNDS;
+
+        // Préchauffage des deux chemins
+        for (File sample : samples) {
+            extractor.extract(sample);
+            xwpfParagraphs(sample);
+        }
+
+        long streamingChars = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (File sample : samples) {
+                streamingChars += extractor.extract(sample).length();
+            }
+        }
+        long streamingNanos = System.nanoTime() - start;
+
+        long xwpfChars = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            for (File sample : samples) {
+                xwpfChars += String.join("\n", xwpfParagraphs(sample)).length();
+            }
+        }
+        long xwpfNanos = System.nanoTime() - start;
+
+        System.out.printf("DOCX streaming: %.1f MB/s, %d chars | XWPF: %.1f MB/s, %d chars (%d files x %d rounds)%n",
+                megabytesPerSecond(bytes, streamingNanos), streamingChars,
+                megabytesPerSecond(bytes, xwpfNanos), xwpfChars, samples.size(), ROUNDS);
+
+        assertTrue(streamingChars >= xwpfChars, "Streaming extraction should cover at least the XWPF body text");
+    }
+
+    private static List<File> sampleDocuments() throws IOException {
+        Path data = Paths.get("data");
+        Assumptions.assumeTrue(Files.isDirectory(data), "No sample documents in data/");
+
+        try (Stream<Path> paths = Files.walk(data)) {
+            List<File> samples = paths
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".docx"))
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+            Assumptions.assumeFalse(samples.isEmpty(), "No sample DOCX documents in data/");
+            return samples;
+        }
+    }
+
+    private static List<String> xwpfParagraphs(File file) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(new FileInputStream(file))) {
+            return document.getParagraphs().stream()
+                    .map(XWPFParagraph::getText)
+                    .filter(text -> text != null && !text.trim().isEmpty())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+
+    private static double megabytesPerSecond(long bytes, long nanos) {
+        return bytes / 1_048_576.0 / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cvfilter.util;
+
+import com.example.cvfilter.exception.InvalidMultipartRequestException;
+import com.example.cvfilter.util.MultipartStreamReader.Part;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamReaderTests {
+
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @Test
+    void streamsFilePartAfterOtherFields() throws IOException {
+        byte[] file = new byte[300_000];
+        new Random(7).nextBytes(file);
+        byte[] body = body("preamble\r\n", file);
+
+        Part part = MultipartStreamReader.findPart(new ByteArrayInputStream(body), CONTENT_TYPE, "file");
+
+        assertEquals("cv é.pdf", part.getFilename());
+        assertArrayEquals(file, part.getInputStream().readAllBytes());
+    }
+
+    // Le délimiteur peut être coupé entre deux lectures du réseau
+    @Test
+    void findsDelimiterAcrossShortReads() throws IOException {
+        byte[] file = ("%PDF-1.4\r\n--" + BOUNDARY.substring(0, 10) + " not a delimiter\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        InputStream trickle = new ByteArrayInputStream(body("", file)) {
+            private final Random random = new Random(3);
+
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 1 + random.nextInt(7)));
+            }
+        };
+
+        Part part = MultipartStreamReader.findPart(trickle, CONTENT_TYPE, "file");
+
+        assertArrayEquals(file, part.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void rejectsTruncatedOrMissingParts() throws IOException {
+        byte[] body = body("", "%PDF-1.4".getBytes(StandardCharsets.ISO_8859_1));
+        byte[] truncated = Arrays.copyOf(body, body.length - BOUNDARY.length());
+
+        Part part = MultipartStreamReader.findPart(new ByteArrayInputStream(truncated), CONTENT_TYPE, "file");
+        assertThrows(InvalidMultipartRequestException.class, () -> part.getInputStream().readAllBytes());
+
+        assertThrows(InvalidMultipartRequestException.class,
+                () -> MultipartStreamReader.findPart(new ByteArrayInputStream(body), CONTENT_TYPE, "other"));
+        assertThrows(InvalidMultipartRequestException.class,
+                () -> MultipartStreamReader.findPart(new ByteArrayInputStream(body), "application/pdf", "file"));
+    }
+
+    private static byte[] body(String preamble, byte[] file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(preamble.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"comment\"\r\n\r\n"
+                + "bonjour\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"cv é.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(file);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return out.toByteArray();
+    }
+}